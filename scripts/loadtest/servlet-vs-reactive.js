@@ -0,0 +1,68 @@
+// Сравнение servlet-стека (Tomcat + JPA) и реактивного профиля (Netty + R2DBC) на CRUD задач.
+// Одна и та же нагрузка подается на оба варианта, на выходе RPS, p50/p99 и в конце теста -
+// число живых потоков и занятая heap-память приложения из actuator.
+//   SPRING_PROFILES_ACTIVE=dev          -> k6 run -e STACK=servlet  scripts/loadtest/servlet-vs-reactive.js
+//   SPRING_PROFILES_ACTIVE=dev,reactive -> k6 run -e STACK=reactive scripts/loadtest/servlet-vs-reactive.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const STACK = __ENV.STACK || 'servlet';
+const RATE = parseInt(__ENV.RATE || '2000');
+const DURATION = __ENV.DURATION || '3m';
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export const options = {
+    scenarios: {
+        crud: {
+            executor: 'constant-arrival-rate',
+            rate: RATE,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 500,
+            maxVUs: 5000,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    tags: { stack: STACK },
+};
+
+export function setup() {
+    const ids = [];
+    for (let i = 0; i < 500; i++) {
+        const res = http.post(`${BASE_URL}/api/v1/tasks`,
+            JSON.stringify({ title: `bench-${i}`, description: 'servlet-vs-reactive' }), JSON_HEADERS);
+        if (res.status === 201) {
+            ids.push(res.json('id'));
+        }
+    }
+    return { ids };
+}
+
+// 70% чтение по ID, 20% страница списка, 10% создание
+export default function (data) {
+    const roll = Math.random();
+    if (roll < 0.7) {
+        const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+        check(http.get(`${BASE_URL}/api/v1/tasks/${id}`), { 'get 200': (r) => r.status === 200 });
+    } else if (roll < 0.9) {
+        check(http.get(`${BASE_URL}/api/v1/tasks?size=20`), { 'page 200': (r) => r.status === 200 });
+    } else {
+        const res = http.post(`${BASE_URL}/api/v1/tasks`,
+            JSON.stringify({ title: 'bench', description: 'k6' }), JSON_HEADERS);
+        check(res, { 'create 201': (r) => r.status === 201 });
+    }
+}
+
+function metric(name, tag) {
+    const query = tag ? `?tag=${tag}` : '';
+    const res = http.get(`${BASE_URL}/actuator/metrics/${name}${query}`);
+    return res.status === 200 ? res.json('measurements.0.value') : NaN;
+}
+
+export function teardown() {
+    const threads = metric('jvm.threads.live');
+    const peakThreads = metric('jvm.threads.peak');
+    const heapMb = metric('jvm.memory.used', 'area:heap') / (1024 * 1024);
+    console.log(`stack=${STACK} threads.live=${threads} threads.peak=${peakThreads} heap.used=${heapMb.toFixed(1)}MB`);
+}
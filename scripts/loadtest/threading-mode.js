@@ -0,0 +1,82 @@
+// Нагрузочный тест режимов выполнения: обычные потоки Tomcat против виртуальных.
+// Медленные AI-запросы идут параллельно с CRUD, сравниваются пропускная способность
+// и p99 CRUD-запросов. Запуск (приложение поднято в нужном режиме):
+//   k6 run -e MODE=platform scripts/loadtest/threading-mode.js
+//   k6 run -e MODE=virtual  scripts/loadtest/threading-mode.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MODE = __ENV.MODE || 'platform';
+const AI_RATE = parseInt(__ENV.AI_RATE || '50');
+const CRUD_RATE = parseInt(__ENV.CRUD_RATE || '500');
+const DURATION = __ENV.DURATION || '2m';
+
+export const options = {
+    scenarios: {
+        // Долгие блокирующие вызовы OpenRouter, занимающие потоки обработки запросов
+        ai: {
+            executor: 'constant-arrival-rate',
+            exec: 'generate',
+            rate: AI_RATE,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+        },
+        // Обычный CRUD, который не должен страдать от медленных AI-запросов
+        crud: {
+            executor: 'constant-arrival-rate',
+            exec: 'crud',
+            rate: CRUD_RATE,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 100,
+            maxVUs: 1000,
+        },
+    },
+    thresholds: {
+        'http_req_duration{scenario:crud}': ['p(99)<500'],
+        'http_req_failed{scenario:crud}': ['rate<0.01'],
+    },
+    tags: { mode: MODE },
+};
+
+export function setup() {
+    const ids = [];
+    for (let i = 0; i < 100; i++) {
+        const res = http.post(`${BASE_URL}/api/v1/tasks`,
+            JSON.stringify({ title: `load-test-${i}`, description: 'k6' }),
+            { headers: { 'Content-Type': 'application/json' } });
+        if (res.status === 201 || res.status === 200) {
+            ids.push(res.json('id'));
+        }
+    }
+    return { ids };
+}
+
+export function generate() {
+    const res = http.post(`${BASE_URL}/api/v1/tasks/generate`,
+        JSON.stringify({ topic: 'Кеширование списков задач' }),
+        { headers: { 'Content-Type': 'application/json' }, timeout: '120s' });
+    check(res, { 'generate answered': (r) => r.status !== 0 });
+}
+
+export function crud(data) {
+    if (Math.random() < 0.8 && data.ids.length > 0) {
+        const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+        const res = http.get(`${BASE_URL}/api/v1/tasks/${id}`);
+        check(res, { 'get 200': (r) => r.status === 200 });
+    } else {
+        const res = http.get(`${BASE_URL}/api/v1/tasks?size=20`);
+        check(res, { 'page 200': (r) => r.status === 200 });
+    }
+}
+
+export function handleSummary(data) {
+    const crud = data.metrics['http_req_duration{scenario:crud}'];
+    const line = `mode=${MODE} reqs=${data.metrics.http_reqs.values.count}`
+        + ` rps=${data.metrics.http_reqs.values.rate.toFixed(1)}`
+        + (crud ? ` crud_p99=${crud.values['p(99)'].toFixed(1)}ms` : '');
+    return { stdout: line + '\n', [`loadtest-${MODE}.json`]: JSON.stringify(data, null, 2) };
+}
@@ -0,0 +1,93 @@
+package dev.ruslan.taskhub.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dev.ruslan.taskhub.model.dto.TaskDto;
+import dev.ruslan.taskhub.model.entity.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение бинарного TaskDtoRedisSerializer с JSON-сериализатором, которым раньше
+ * писался кеш задач (GenericJackson2JsonRedisSerializer с тем же ObjectMapper, что в CacheConfig).
+ * Пропускная способность сериализации и десериализации - результаты JMH,
+ * размер записи в байтах печатается при запуске каждого варианта.
+ * <p>
+ * Запуск: {@code mvn -Pbenchmark test-compile exec:exec [-Dbenchmark.filter=TaskDtoSerializerBenchmark]}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskDtoSerializerBenchmark {
+
+    /**
+     * Длина описания: короткая задача и задача с подробным описанием
+     */
+    @Param({"40", "1000"})
+    private int descriptionLength;
+
+    private final TaskDtoRedisSerializer binarySerializer = new TaskDtoRedisSerializer();
+    private GenericJackson2JsonRedisSerializer jsonSerializer;
+
+    private TaskDto task;
+    private byte[] binaryEntry;
+    private byte[] jsonEntry;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        jsonSerializer = new GenericJackson2JsonRedisSerializer(mapper);
+
+        task = new TaskDto("Настроить Kafka Consumer", "Обработка событий ".repeat(descriptionLength / 18 + 1)
+                .substring(0, descriptionLength));
+        task.setId(42L);
+        task.setStatus(TaskStatus.IN_PROGRESS);
+        task.setCreatedAt(LocalDateTime.of(2025, 1, 15, 10, 30, 0, 123_456_000));
+        task.setUpdatedAt(LocalDateTime.of(2025, 1, 16, 8, 0, 5, 1_000));
+
+        binaryEntry = binarySerializer.serialize(task);
+        jsonEntry = jsonSerializer.serialize(task);
+        System.out.printf("%nBytes per entry (description %d chars): binary %d, json %d%n",
+                descriptionLength, binaryEntry.length, jsonEntry.length);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return binarySerializer.serialize(task);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize(task);
+    }
+
+    @Benchmark
+    public TaskDto deserializeBinary() {
+        return binarySerializer.deserialize(binaryEntry);
+    }
+
+    @Benchmark
+    public TaskDto deserializeJson() {
+        return jsonSerializer.deserialize(jsonEntry, TaskDto.class);
+    }
+}
@@ -3,59 +3,77 @@ package dev.ruslan.taskhub.analytics;
 import dev.ruslan.taskhub.model.dto.events.TaskEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 /**
- * Сервис для работы с ClickHouse и аналитикой событий задач
+ * Сервис для работы с ClickHouse и аналитикой событий задач.
+ * Соединения берутся из отдельного пула clickHouseDataSource.
+ * <p>
+ * clickhouse-jdbc 0.7.x держит монитор на время HTTP-запроса (ClickHouseStatementImpl.sendRequest),
+ * поэтому на Java 21 виртуальный поток закрепляется за carrier-потоком на весь запрос.
+ * Число одновременных запросов ограничено размером пула, держите его не больше числа ядер.
  */
 @Service
 public class ClickHouseService {
 
     private static final Logger logger = LoggerFactory.getLogger(ClickHouseService.class);
 
-    @Value("${clickhouse.datasource.url}")
-    private String clickhouseUrl;
+    private static final String INSERT_TASK_EVENT_SQL = """
+            INSERT INTO task_events (id, event_type, title, status, created_at) 
+            VALUES (?, ?, ?, ?, ?)
+            """;
 
-    @Value("${clickhouse.datasource.username}")
-    private String username;
+    private final DataSource dataSource;
 
-    @Value("${clickhouse.datasource.password}")
-    private String password;
+    public ClickHouseService(@Qualifier("clickHouseDataSource") DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
 
     /**
      * Вставляет событие задачи в ClickHouse
      */
     public void insertTaskEvent(TaskEvent event) {
-        String sql = """
-            INSERT INTO task_events (id, event_type, title, status, created_at) 
-            VALUES (?, ?, ?, ?, ?)
-            """;
+        insertTaskEvents(List.of(event));
+    }
 
+    /**
+     * Вставляет пакет событий задач в ClickHouse одним INSERT'ом.
+     * Для MergeTree каждый INSERT создает отдельный part, поэтому писать нужно пакетами.
+     */
+    public void insertTaskEvents(List<TaskEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        // Один PreparedStatement на весь пакет: SQL разбирается драйвером один раз
         try (Connection connection = getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-
-            statement.setString(1, UUID.randomUUID().toString());
-            statement.setString(2, event.getEventType());
-            statement.setString(3, event.getTitle());
-            statement.setString(4, event.getStatus().name());
-            statement.setObject(5, event.getTimestamp());
+             PreparedStatement statement = connection.prepareStatement(INSERT_TASK_EVENT_SQL)) {
+
+            for (TaskEvent event : events) {
+                statement.setString(1, UUID.randomUUID().toString());
+                statement.setString(2, event.getEventType());
+                statement.setString(3, event.getTitle());
+                statement.setString(4, event.getStatus().name());
+                statement.setObject(5, event.getTimestamp());
+                statement.addBatch();
+            }
 
-            int rowsAffected = statement.executeUpdate();
-            logger.debug("Inserted task event into ClickHouse: {} rows affected", rowsAffected);
+            statement.executeBatch();
+            logger.debug("Inserted batch of {} task events into ClickHouse", events.size());
 
         } catch (SQLException e) {
-            logger.error("Error inserting task event into ClickHouse: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to insert task event", e);
+            logger.error("Error inserting {} task events into ClickHouse: {}", events.size(), e.getMessage(), e);
+            throw new RuntimeException("Failed to insert task events", e);
         }
     }
 
@@ -178,9 +196,9 @@ public class ClickHouseService {
     }
 
     /**
-     * Получает соединение с ClickHouse
+     * Берет соединение из пула ClickHouse
      */
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(clickhouseUrl, username, password);
+        return dataSource.getConnection();
     }
 }
\ No newline at end of file
@@ -0,0 +1,282 @@
+package dev.ruslan.taskhub.analytics;
+
+import dev.ruslan.taskhub.model.dto.events.TaskEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Буферизованная пакетная запись событий задач в ClickHouse.
+ * <p>
+ * События копятся в ограниченной очереди и сбрасываются одним INSERT'ом,
+ * когда набирается {@code batch-size} событий или проходит {@code flush-interval}.
+ * Backpressure: при достижении {@code high-watermark} вызывается обработчик паузы (Kafka listener'ы
+ * перестают получать записи, но consumer продолжает poll и не выпадает из группы),
+ * а после того как очередь записана до {@code low-watermark} - обработчик возобновления.
+ * Колбэк события (подтверждение offset'а) вызывается только после успешной записи пакета,
+ * поэтому доставка остается at-least-once. Неудачный пакет повторяется с нарастающей паузой.
+ */
+@Component
+public class TaskEventBatchWriter implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventBatchWriter.class);
+
+    /**
+     * Стартуем раньше и останавливаемся позже Kafka listener-контейнеров
+     */
+    private static final int PHASE = Integer.MAX_VALUE - 200;
+
+    private static final Runnable NO_CALLBACK = () -> {};
+
+    private final ClickHouseService clickHouseService;
+    private final BlockingQueue<PendingEvent> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration maxRetryBackoff;
+    private final int highWatermark;
+    private final int lowWatermark;
+
+    private final Counter writtenEvents;
+    private final Counter failedFlushes;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private volatile boolean paused;
+    private Runnable onHighWatermark = NO_CALLBACK;
+    private Runnable onDrained = NO_CALLBACK;
+    private Thread flusher;
+
+    public TaskEventBatchWriter(ClickHouseService clickHouseService,
+                                MeterRegistry meterRegistry,
+                                @Value("${clickhouse.ingestion.batch-size:1000}") int batchSize,
+                                @Value("${clickhouse.ingestion.flush-interval:1s}") Duration flushInterval,
+                                @Value("${clickhouse.ingestion.queue-capacity:10000}") int queueCapacity,
+                                @Value("${clickhouse.ingestion.max-retry-backoff:30s}") Duration maxRetryBackoff,
+                                @Value("${clickhouse.ingestion.high-watermark:5000}") int highWatermark,
+                                @Value("${clickhouse.ingestion.low-watermark:1000}") int lowWatermark) {
+        this.clickHouseService = clickHouseService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.highWatermark = highWatermark;
+        this.lowWatermark = lowWatermark;
+
+        Gauge.builder("taskhub.clickhouse.ingestion.queue", queue, BlockingQueue::size)
+                .description("События, ожидающие записи в ClickHouse")
+                .register(meterRegistry);
+        this.writtenEvents = Counter.builder("taskhub.clickhouse.ingestion.events")
+                .description("События, записанные в ClickHouse")
+                .register(meterRegistry);
+        this.failedFlushes = Counter.builder("taskhub.clickhouse.ingestion.failures")
+                .description("Неудачные попытки записи пакета")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("taskhub.clickhouse.ingestion.flush")
+                .description("Длительность записи пакета в ClickHouse")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Задает обработчики backpressure: {@code onHighWatermark} вызывается при заполнении очереди
+     * до high-watermark, {@code onDrained} - после записи очереди до low-watermark
+     */
+    public synchronized void setBackpressureHandlers(Runnable onHighWatermark, Runnable onDrained) {
+        this.onHighWatermark = onHighWatermark;
+        this.onDrained = onDrained;
+    }
+
+    /**
+     * Ставит событие в очередь на запись.
+     * Блокируется, только если место закончилось несмотря на паузу - запас между high-watermark
+     * и queue-capacity должен вмещать пакеты, уже полученные listener'ами до паузы.
+     *
+     * @param onWritten вызывается в потоке записи после того, как пакет с событием записан
+     */
+    public void enqueue(TaskEvent event, Runnable onWritten) throws InterruptedException {
+        if (!running) {
+            throw new IllegalStateException("Task event writer is not running");
+        }
+        PendingEvent pending = new PendingEvent(event, onWritten);
+        if (!queue.offer(pending)) {
+            logger.warn("ClickHouse ingestion queue is full despite the pause, waiting for free space");
+            queue.put(pending);
+        }
+        if (!paused && queue.size() >= highWatermark) {
+            pause();
+        }
+    }
+
+    /**
+     * Ставит в очередь пакет событий, например весь poll Kafka.
+     * Колбэк один на пакет: пакеты пишутся строго по порядку очереди,
+     * поэтому запись последнего события означает, что записаны все.
+     *
+     * @param onWritten вызывается в потоке записи после записи всех событий пакета
+     */
+    public void enqueueAll(List<TaskEvent> events, Runnable onWritten) throws InterruptedException {
+        if (events.isEmpty()) {
+            onWritten.run();
+            return;
+        }
+        int last = events.size() - 1;
+        for (int i = 0; i < last; i++) {
+            enqueue(events.get(i), NO_CALLBACK);
+        }
+        enqueue(events.get(last), onWritten);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        // Обычный поток и при spring.threads.virtual.enabled: запись в ClickHouse закрепила бы
+        // виртуальный поток за carrier'ом (см. ClickHouseService)
+        flusher = new Thread(this::flushLoop, "clickhouse-ingestion");
+        flusher.start();
+        logger.info("ClickHouse ingestion started: batch size {}, flush interval {} ms, queue capacity {}",
+                batchSize, TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos), queue.remainingCapacity());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            flusher.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("ClickHouse ingestion stopped with {} unwritten events, they will be redelivered by Kafka",
+                    queue.size());
+        }
+    }
+
+    /**
+     * Пауза и возобновление под одним монитором, иначе обработчики могли бы выполниться
+     * в обратном порядке и оставить listener'ы на паузе навсегда
+     */
+    private synchronized void pause() {
+        if (paused) {
+            return;
+        }
+        paused = true;
+        logger.warn("ClickHouse ingestion queue reached {} events, pausing consumers", queue.size());
+        onHighWatermark.run();
+    }
+
+    private synchronized void resumeIfDrained() {
+        if (!paused || queue.size() > lowWatermark) {
+            return;
+        }
+        paused = false;
+        logger.info("ClickHouse ingestion queue drained to {} events, resuming consumers", queue.size());
+        onDrained.run();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void flushLoop() {
+        List<PendingEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                writeWithRetry(batch);
+                batch.clear();
+            }
+            if (paused) {
+                resumeIfDrained();
+            }
+        }
+    }
+
+    /**
+     * Набирает пакет, пока он не заполнится или не истечет интервал с момента первого события
+     */
+    private void collectBatch(List<PendingEvent> batch) throws InterruptedException {
+        PendingEvent first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            PendingEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void writeWithRetry(List<PendingEvent> batch) {
+        List<TaskEvent> events = batch.stream().map(PendingEvent::event).toList();
+        Duration backoff = Duration.ofMillis(500);
+        while (true) {
+            try {
+                flushTimer.record(() -> clickHouseService.insertTaskEvents(events));
+                writtenEvents.increment(events.size());
+                batch.forEach(PendingEvent::acknowledge);
+                logger.debug("Flushed {} task events to ClickHouse", events.size());
+                return;
+            } catch (RuntimeException e) {
+                failedFlushes.increment();
+                if (!running) {
+                    logger.error("Dropping {} task events on shutdown, they will be redelivered by Kafka: {}",
+                            events.size(), e.getMessage());
+                    return;
+                }
+                logger.error("Failed to flush {} task events to ClickHouse, retrying in {} ms: {}",
+                        events.size(), backoff.toMillis(), e.getMessage());
+                try {
+                    Thread.sleep(backoff.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                    return;
+                }
+                backoff = backoff.multipliedBy(2).compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    private record PendingEvent(TaskEvent event, Runnable onWritten) {
+
+        void acknowledge() {
+            try {
+                onWritten.run();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to acknowledge task event {}: {}", event.getId(), e.getMessage());
+            }
+        }
+    }
+}
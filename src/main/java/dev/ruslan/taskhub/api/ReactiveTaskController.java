@@ -0,0 +1,76 @@
+package dev.ruslan.taskhub.api;
+
+import dev.ruslan.taskhub.model.dto.TaskCreateDto;
+import dev.ruslan.taskhub.model.dto.TaskDto;
+import dev.ruslan.taskhub.model.dto.TaskPageDto;
+import dev.ruslan.taskhub.model.entity.TaskStatus;
+import dev.ruslan.taskhub.service.ReactiveTaskService;
+import dev.ruslan.taskhub.service.TaskService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * CRUD задач на WebFlux для реактивного профиля.
+ * Контракт совпадает с {@link TaskController}.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/v1/tasks")
+public class ReactiveTaskController {
+
+    private final ReactiveTaskService taskService;
+
+    public ReactiveTaskController(ReactiveTaskService taskService) {
+        this.taskService = taskService;
+    }
+
+    @GetMapping("/ping")
+    public Mono<String> ping() {
+        return Mono.just("pong");
+    }
+
+    @GetMapping
+    public Mono<TaskPageDto> getAllTasks(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int size) {
+        return taskService.getTasksPage(status, createdFrom, createdTo, cursor, size);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<TaskDto>> getTaskById(@PathVariable Long id) {
+        return taskService.getTaskById(id)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<TaskDto>> createTask(@Valid @RequestBody TaskCreateDto taskCreateDto) {
+        return taskService.createTask(taskCreateDto)
+            .map(task -> ResponseEntity.status(HttpStatus.CREATED).body(task));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<TaskDto>> updateTask(@PathVariable Long id, @Valid @RequestBody TaskDto taskDto) {
+        return taskService.updateTask(id, taskDto)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteTask(@PathVariable Long id) {
+        return taskService.deleteTask(id)
+            .map(deleted -> deleted
+                ? ResponseEntity.noContent().<Void>build()
+                : ResponseEntity.notFound().<Void>build());
+    }
+}
@@ -1,31 +1,67 @@
 package dev.ruslan.taskhub.api;
 
+import dev.ruslan.taskhub.cache.TaskCollectionVersion;
 import dev.ruslan.taskhub.model.dto.TaskCreateDto;
 import dev.ruslan.taskhub.model.dto.TaskDto;
+import dev.ruslan.taskhub.model.dto.TaskFileFormat;
+import dev.ruslan.taskhub.model.dto.TaskPageDto;
+import dev.ruslan.taskhub.model.dto.TaskSearchPageDto;
+import dev.ruslan.taskhub.model.entity.TaskStatus;
+import dev.ruslan.taskhub.service.TaskExportService;
 import dev.ruslan.taskhub.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/tasks")
 @Tag(name = "Task Management", description = "API для управления задачами")
 public class TaskController {
 
+    /**
+     * Ответы чтения можно хранить, но перед использованием нужно сверить ETag
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
+    private final TaskCollectionVersion collectionVersion;
 
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskExportService taskExportService,
+                          TaskCollectionVersion collectionVersion) {
         this.taskService = taskService;
+        this.taskExportService = taskExportService;
+        this.collectionVersion = collectionVersion;
     }
 
     @GetMapping("/ping")
@@ -35,22 +71,103 @@ public class TaskController {
     }
 
     @GetMapping
-    @Operation(summary = "Получить все задачи", description = "Возвращает список всех задач")
-    @ApiResponse(responseCode = "200", description = "Список задач успешно получен")
-    public ResponseEntity<List<TaskDto>> getAllTasks() {
-        List<TaskDto> tasks = taskService.getAllTasks();
-        return ResponseEntity.ok(tasks);
+    @Operation(
+        summary = "Получить задачи постранично",
+        description = "Возвращает страницу задач (сначала новые) с фильтрами по статусу и дате создания. "
+            + "Для получения следующей страницы передайте nextCursor из предыдущего ответа"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Страница задач успешно получена"),
+        @ApiResponse(responseCode = "304", description = "Задачи не менялись с версии из If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Некорректные параметры или курсор")
+    })
+    public ResponseEntity<TaskPageDto> getAllTasks(
+            @Parameter(description = "Фильтр по статусу")
+            @RequestParam(required = false) TaskStatus status,
+            @Parameter(description = "Дата создания от (включительно), ISO-8601")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Дата создания до (не включительно), ISO-8601")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @Parameter(description = "Курсор следующей страницы из предыдущего ответа")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (1-" + TaskService.MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return collectionResponse("tasks", ifNoneMatch,
+            () -> taskService.getTasksPage(status, createdFrom, createdTo, cursor, size),
+            status, createdFrom, createdTo, cursor, size);
+    }
+
+    @GetMapping("/search")
+    @Operation(
+        summary = "Поиск задач",
+        description = "Ищет слова запроса в заголовке и описании (поддерживаются \"фразы\", OR и -исключение) "
+            + "и нечеткое совпадение с заголовком. Результаты отсортированы по релевантности"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Страница результатов"),
+        @ApiResponse(responseCode = "304", description = "Задачи не менялись с версии из If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Некорректные параметры")
+    })
+    public ResponseEntity<TaskSearchPageDto> searchTasks(
+            @Parameter(description = "Поисковый запрос")
+            @RequestParam @NotBlank @Size(max = TaskService.MAX_SEARCH_QUERY_LENGTH) String q,
+            @Parameter(description = "Фильтр по статусу")
+            @RequestParam(required = false) TaskStatus status,
+            @Parameter(description = "Номер страницы, с нуля")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Размер страницы (1-" + TaskService.MAX_SEARCH_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + TaskService.DEFAULT_SEARCH_PAGE_SIZE) int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return collectionResponse("search", ifNoneMatch,
+            () -> taskService.searchTasks(q, status, page, size),
+            q, status, page, size);
+    }
+
+    @GetMapping("/export")
+    @Operation(
+        summary = "Выгрузить задачи",
+        description = "Потоково выгружает все задачи (или задачи со статусом) в порядке id: "
+            + "NDJSON - по объекту на строку, CSV - с заголовком"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Выгрузка задач"),
+        @ApiResponse(responseCode = "400", description = "Некорректные параметры")
+    })
+    public void exportTasks(
+            @Parameter(description = "Фильтр по статусу")
+            @RequestParam(required = false) TaskStatus status,
+            @Parameter(description = "Формат выгрузки")
+            @RequestParam(defaultValue = "NDJSON") TaskFileFormat format,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename("tasks." + format.getExtension())
+            .build()
+            .toString());
+        taskExportService.export(status, format, response.getOutputStream());
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Получить задачу по ID", description = "Возвращает задачу по указанному идентификатору")
+    @Operation(
+        summary = "Получить задачу по ID",
+        description = "Возвращает задачу по указанному идентификатору. ETag и Last-Modified строятся из id и "
+            + "даты обновления, при совпадении If-None-Match ответ 304 без тела"
+    )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Задача найдена"),
+        @ApiResponse(responseCode = "304", description = "Задача не менялась с версии из If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Задача не найдена")
     })
     public ResponseEntity<TaskDto> getTaskById(@PathVariable Long id) {
+        // Задача обычно приходит из кеша; 304 по ETag отдает MVC, не сериализуя тело
         Optional<TaskDto> task = taskService.getTaskById(id);
-        return task.map(taskDto -> ResponseEntity.ok(taskDto))
+        return task.map(taskDto -> ResponseEntity.ok()
+                       .eTag(taskETag(taskDto))
+                       .lastModified(lastModified(taskDto))
+                       .cacheControl(REVALIDATE)
+                       .body(taskDto))
                    .orElse(ResponseEntity.notFound().build());
     }
 
@@ -65,6 +182,37 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
     }
 
+    @PostMapping("/bulk")
+    @Operation(
+        summary = "Создать задачи пакетом",
+        description = "Создает до " + TaskService.MAX_BULK_SIZE + " задач одной транзакцией"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Задачи успешно созданы"),
+        @ApiResponse(responseCode = "400", description = "Некорректные данные")
+    })
+    public ResponseEntity<List<TaskDto>> createTasks(
+            @RequestBody @NotEmpty @Size(max = TaskService.MAX_BULK_SIZE) List<@Valid TaskCreateDto> taskCreateDtos) {
+        List<TaskDto> createdTasks = taskService.createTasks(taskCreateDtos);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdTasks);
+    }
+
+    @PatchMapping("/bulk")
+    @Operation(
+        summary = "Обновить задачи пакетом",
+        description = "Обновляет до " + TaskService.MAX_BULK_SIZE + " задач одной транзакцией. "
+            + "Если хотя бы одной задачи нет, ни одна не изменяется"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Задачи успешно обновлены"),
+        @ApiResponse(responseCode = "404", description = "Некоторые задачи не найдены"),
+        @ApiResponse(responseCode = "400", description = "Некорректные данные")
+    })
+    public ResponseEntity<List<TaskDto>> updateTasks(
+            @RequestBody @NotEmpty @Size(max = TaskService.MAX_BULK_SIZE) List<@Valid TaskDto> taskDtos) {
+        return ResponseEntity.ok(taskService.updateTasks(taskDtos));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Обновить задачу", description = "Обновляет существующую задачу по ID")
     @ApiResponses(value = {
@@ -89,4 +237,46 @@ public class TaskController {
         return deleted ? ResponseEntity.noContent().build() 
                        : ResponseEntity.notFound().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Ответ для списка или поиска с ETag из версии коллекции и параметров запроса.
+     * Если If-None-Match совпадает с текущей версией, база не запрашивается, а 304 отдает MVC.
+     * Пока версия недоступна, ответ отдается без ETag.
+     */
+    private <T> ResponseEntity<T> collectionResponse(String collection, String ifNoneMatch,
+                                                     Supplier<T> loader, Object... params) {
+        Long version = collectionVersion.current();
+        if (version == null) {
+            return ResponseEntity.ok(loader.get());
+        }
+        String etag = "\"" + collection + "-" + Long.toHexString(version)
+            + "-" + Integer.toHexString(Objects.hash(params)) + "\"";
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE);
+        if (matches(ifNoneMatch, etag)) {
+            return response.build();
+        }
+        return response.body(loader.get());
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        ETag current = ETag.create(etag);
+        return ETag.parse(ifNoneMatch).stream()
+            .anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
+    }
+
+    /**
+     * Сильный ETag версии задачи: id и дата обновления с точностью Postgres (микросекунды)
+     */
+    private static String taskETag(TaskDto task) {
+        LocalDateTime updatedAt = task.getUpdatedAt().truncatedTo(ChronoUnit.MICROS);
+        long micros = ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), updatedAt);
+        return "\"task-" + task.getId() + "-" + Long.toHexString(micros) + "\"";
+    }
+
+    private static long lastModified(TaskDto task) {
+        return task.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,80 +1,180 @@
 package dev.ruslan.taskhub.api;
 
-import dev.ruslan.taskhub.model.dto.GeneratedTaskResponse;
+import dev.ruslan.taskhub.cache.GenerationCache;
+import dev.ruslan.taskhub.exception.AiRateLimitException;
+import dev.ruslan.taskhub.model.dto.BatchGenerationRequest;
+import dev.ruslan.taskhub.model.dto.BatchGenerationResult;
+import dev.ruslan.taskhub.model.dto.GenerationJobDto;
 import dev.ruslan.taskhub.model.dto.TaskPromptRequest;
+import dev.ruslan.taskhub.ratelimit.AiAdmissionControl;
+import dev.ruslan.taskhub.service.BatchGenerationService;
+import dev.ruslan.taskhub.service.GenerationJobService;
 import dev.ruslan.taskhub.service.OpenRouterClient;
+import dev.ruslan.taskhub.service.OpenRouterHealthMonitor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.UUID;
+
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/tasks")
 @Tag(name = "AI Task Generation", description = "API для генерации задач с помощью искусственного интеллекта")
 public class TaskGenerationController {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskGenerationController.class);
     
+    /**
+     * Рекомендуемый интервал опроса статуса задания, секунды
+     */
+    private static final int POLL_INTERVAL_SECONDS = 2;
+    
     private final OpenRouterClient openRouterClient;
+    private final GenerationJobService generationJobService;
+    private final GenerationCache generationCache;
+    private final BatchGenerationService batchGenerationService;
+    private final OpenRouterHealthMonitor openRouterHealthMonitor;
+    private final AiAdmissionControl admissionControl;
 
     @Autowired
-    public TaskGenerationController(OpenRouterClient openRouterClient) {
+    public TaskGenerationController(OpenRouterClient openRouterClient,
+                                    GenerationJobService generationJobService,
+                                    GenerationCache generationCache,
+                                    BatchGenerationService batchGenerationService,
+                                    OpenRouterHealthMonitor openRouterHealthMonitor,
+                                    AiAdmissionControl admissionControl) {
         this.openRouterClient = openRouterClient;
+        this.generationJobService = generationJobService;
+        this.generationCache = generationCache;
+        this.batchGenerationService = batchGenerationService;
+        this.openRouterHealthMonitor = openRouterHealthMonitor;
+        this.admissionControl = admissionControl;
     }
 
     @PostMapping("/generate")
     @Operation(
         summary = "Генерация технической задачи с помощью AI", 
-        description = "Принимает тему задачи и возвращает полноценную техническую задачу, сгенерированную AI"
+        description = "Принимает тему задачи и ставит задание на генерацию в очередь. "
+            + "Результат доступен по ссылке из заголовка Location"
     )
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Задача успешно сгенерирована"),
+        @ApiResponse(responseCode = "202", description = "Задание на генерацию принято"),
         @ApiResponse(responseCode = "400", description = "Некорректные данные запроса"),
-        @ApiResponse(responseCode = "500", description = "Ошибка при генерации задачи")
+        @ApiResponse(responseCode = "503", description = "Очередь генерации заполнена")
     })
-    public ResponseEntity<GeneratedTaskResponse> generateTask(
+    public ResponseEntity<GenerationJobDto> generateTask(
             @Valid @RequestBody TaskPromptRequest request) {
-        
-        try {
-            logger.info("Получен запрос на генерацию задачи для темы: {}", request.getTopic());
-            
-            String generatedContent = openRouterClient.generateTask(request.getTopic());
-            
-            GeneratedTaskResponse response = new GeneratedTaskResponse(
-                generatedContent, 
-                request.getTopic()
-            );
-            
-            logger.info("Задача успешно сгенерирована для темы: {}", request.getTopic());
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            logger.error("Ошибка при генерации задачи для темы: {}", request.getTopic(), e);
-            
-            GeneratedTaskResponse errorResponse = new GeneratedTaskResponse(
-                "Произошла ошибка при генерации задачи: " + e.getMessage(),
-                request.getTopic()
-            );
-            
-            return ResponseEntity.internalServerError().body(errorResponse);
+        logger.info("Получен запрос на генерацию задачи для темы: {}", request.getTopic());
+
+        GenerationJobDto job = generationJobService.submit(request.getTopic());
+
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/v1/tasks/generate/jobs/" + job.getId()))
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(POLL_INTERVAL_SECONDS))
+            .body(job);
+    }
+
+    @GetMapping("/generate/jobs/{jobId}")
+    @Operation(
+        summary = "Статус задания на генерацию", 
+        description = "Возвращает статус задания и сгенерированную задачу, когда она готова"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Задание найдено"),
+        @ApiResponse(responseCode = "404", description = "Задание не найдено")
+    })
+    public ResponseEntity<GenerationJobDto> getGenerationJob(@PathVariable UUID jobId) {
+        return generationJobService.getJob(jobId)
+            .map(job -> {
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                if (job.isInProgress()) {
+                    response.header(HttpHeaders.RETRY_AFTER, String.valueOf(POLL_INTERVAL_SECONDS));
+                }
+                return response.body(job);
+            })
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping(value = "/generate/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Пакетная генерация технических задач с помощью AI", 
+        description = "Генерирует задачи по списку тем параллельно и отдает результаты по мере готовности "
+            + "(NDJSON, по строке на тему). Ошибка одной темы не прерывает пакет"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Поток результатов по темам"),
+        @ApiResponse(responseCode = "400", description = "Некорректные данные запроса"),
+        @ApiResponse(responseCode = "429", description = "Превышен лимит генераций клиента")
+    })
+    public Flux<BatchGenerationResult> generateBatch(@Valid @RequestBody BatchGenerationRequest request,
+                                                     HttpServletRequest httpRequest) {
+        logger.info("Получен запрос на пакетную генерацию {} задач", request.getTopics().size());
+        // Каждая тема - отдельная генерация и списывается с лимита клиента
+        AiAdmissionControl.Decision decision =
+            admissionControl.checkRate(httpRequest.getRemoteAddr(), request.getTopics().size());
+        if (!decision.isAdmitted()) {
+            throw new AiRateLimitException(decision.retryAfter());
         }
+        return batchGenerationService.generate(request.getTopics(), request.isCreateTasks());
+    }
+
+    @GetMapping(value = "/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Потоковая генерация технической задачи с помощью AI", 
+        description = "Отдает задачу как Server-Sent Events по мере генерации: события token с фрагментами "
+            + "Markdown, затем done. При ошибке приходит событие error"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Поток фрагментов задачи"),
+        @ApiResponse(responseCode = "400", description = "Некорректные данные запроса")
+    })
+    public Flux<ServerSentEvent<String>> streamTask(
+            @RequestParam @NotBlank(message = "Topic cannot be blank")
+            @Size(max = 255, message = "Topic cannot exceed 255 characters") String topic) {
+        logger.info("Получен запрос на потоковую генерацию задачи для темы: {}", topic);
+
+        // Готовый ответ из кеша отдается одним фрагментом; потоковый ответ не кешируется,
+        // чтобы не накапливать его целиком на сервере
+        Flux<String> tokens = generationCache.getIfPresent(topic)
+            .map(Flux::just)
+            .orElseGet(() -> openRouterClient.streamTask(topic));
+
+        return tokens
+            .map(token -> ServerSentEvent.builder(token).event("token").build())
+            .concatWith(Mono.just(ServerSentEvent.builder("").event("done").build()))
+            .onErrorResume(e -> Mono.just(ServerSentEvent.builder("Ошибка при генерации задачи")
+                .event("error")
+                .build()));
     }
 
     @GetMapping("/generate/health")
     @Operation(
         summary = "Проверка работоспособности AI сервиса", 
-        description = "Проверяет доступность OpenRouter API"
+        description = "Возвращает доступность OpenRouter API по результатам фоновых проверок"
     )
     @ApiResponse(responseCode = "200", description = "AI сервис доступен")
     @ApiResponse(responseCode = "503", description = "AI сервис недоступен")
     public ResponseEntity<String> checkAiHealth() {
-        boolean isAvailable = openRouterClient.isApiAvailable();
+        boolean isAvailable = openRouterHealthMonitor.isAvailable();
         
         if (isAvailable) {
             return ResponseEntity.ok("AI сервис работает корректно");
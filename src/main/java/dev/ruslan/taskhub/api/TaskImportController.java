@@ -0,0 +1,81 @@
+package dev.ruslan.taskhub.api;
+
+import dev.ruslan.taskhub.imports.TaskImport;
+import dev.ruslan.taskhub.imports.TaskImportService;
+import dev.ruslan.taskhub.model.dto.TaskFileFormat;
+import dev.ruslan.taskhub.model.dto.TaskImportDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/tasks/import")
+@Tag(name = "Task Import", description = "API для загрузки задач из файлов")
+public class TaskImportController {
+
+    private final TaskImportService taskImportService;
+
+    @Autowired
+    public TaskImportController(TaskImportService taskImportService) {
+        this.taskImportService = taskImportService;
+    }
+
+    @PostMapping
+    @Operation(
+        summary = "Загрузить задачи из файла",
+        description = "Читает тело запроса потоком (NDJSON или CSV с заголовком, как в выгрузке) и загружает задачи "
+            + "пакетами через COPY. Некорректные строки пропускаются и попадают в отчет. "
+            + "Ход загрузки доступен в GET /api/v1/tasks/import/{importId}: чтобы следить за ним во время "
+            + "передачи файла, клиент передает свой id в заголовке X-Import-Id. Ход хранится только "
+            + "в памяти узла, выполняющего загрузку, - запросы хода должны попадать на тот же узел"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Загрузка завершена, отчет по строкам"),
+        @ApiResponse(responseCode = "400", description = "Загрузка с таким X-Import-Id уже есть"),
+        @ApiResponse(responseCode = "500", description = "Загрузка прервана, уже записанные пакеты сохранены")
+    })
+    public ResponseEntity<TaskImportDto> importTasks(
+            @Parameter(description = "Формат файла")
+            @RequestParam(defaultValue = "NDJSON") TaskFileFormat format,
+            @Parameter(description = "Id загрузки (UUID), если клиент хочет следить за ходом до ответа")
+            @RequestHeader(value = "X-Import-Id", required = false) UUID importId,
+            HttpServletRequest request) throws IOException {
+        TaskImportDto result = taskImportService.importTasks(format, request.getInputStream(), importId);
+        HttpStatus status = result.getStatus() == TaskImport.Status.FAILED
+            ? HttpStatus.INTERNAL_SERVER_ERROR
+            : HttpStatus.OK;
+        return ResponseEntity.status(status).body(result);
+    }
+
+    @GetMapping
+    @Operation(summary = "Загрузки задач", description = "Текущие и недавние загрузки этого узла, сначала новые. "
+        + "Загрузки других узлов здесь не видны")
+    public ResponseEntity<List<TaskImportDto>> getImports() {
+        return ResponseEntity.ok(taskImportService.getImports());
+    }
+
+    @GetMapping("/{importId}")
+    @Operation(summary = "Ход загрузки задач", description = "Возвращает счетчики строк и ошибки загрузки")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Загрузка найдена"),
+        @ApiResponse(responseCode = "404", description = "Загрузка не найдена")
+    })
+    public ResponseEntity<TaskImportDto> getImport(@PathVariable UUID importId) {
+        return taskImportService.getImport(importId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,202 @@
+package dev.ruslan.taskhub.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker для удаленного кеша.
+ * После {@code failureThreshold} подряд ошибок или медленных вызовов размыкается
+ * и на {@code openDuration} перестает пропускать вызовы к Redis. Затем пропускает
+ * один пробный вызов: успех замыкает цепь, ошибка снова размыкает.
+ * Действия при восстановлении выполняются на отдельном executor'е, а не в потоке
+ * запроса, который сделал пробный вызов.
+ */
+public class CacheCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheCircuitBreaker.class);
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long slowCallNanos;
+    private final long openDurationNanos;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+    private final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+    private final Executor listenerExecutor;
+
+    public CacheCircuitBreaker(String name, int failureThreshold, Duration slowCallThreshold, Duration openDuration,
+                               Executor listenerExecutor) {
+        this.name = name;
+        this.listenerExecutor = listenerExecutor;
+        this.failureThreshold = failureThreshold;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.openDurationNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Выполняет вызов к удаленному кешу под защитой breaker'а.
+     * Если цепь разомкнута или вызов упал, возвращается результат fallback.
+     */
+    public <T> T execute(Supplier<T> remoteCall, Supplier<T> fallback) {
+        if (!tryAcquire()) {
+            shortCircuited.increment();
+            return fallback.get();
+        }
+        long start = System.nanoTime();
+        try {
+            T result = remoteCall.get();
+            onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            onFailure();
+            logger.warn("Remote cache call failed (breaker '{}', state {}): {}", name, state.get(), e.getMessage());
+            return fallback.get();
+        }
+    }
+
+    /**
+     * Выполняет вызов без результата, при разомкнутой цепи вызывает onSkipped
+     */
+    public void run(Runnable remoteCall, Runnable onSkipped) {
+        execute(() -> {
+            remoteCall.run();
+            return Boolean.TRUE;
+        }, () -> {
+            onSkipped.run();
+            return Boolean.FALSE;
+        });
+    }
+
+    /**
+     * Разрешение на неблокирующий вызов к удаленному кешу. Получивший разрешение сообщает
+     * результат через {@link #recordSuccess}, {@link #recordFailure} или {@link #recordCancelled}.
+     *
+     * @return false если цепь разомкнута и вызов нужно пропустить
+     */
+    public boolean tryAcquirePermission() {
+        if (!tryAcquire()) {
+            shortCircuited.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public void recordSuccess(long durationNanos) {
+        onSuccess(durationNanos);
+    }
+
+    public void recordFailure(Throwable error) {
+        onFailure();
+        logger.warn("Remote cache call failed (breaker '{}', state {}): {}", name, state.get(), error.getMessage());
+    }
+
+    /**
+     * Вызов отменен до результата. Если это был пробный вызов, следующий вызов
+     * становится пробным, иначе цепь осталась бы полуоткрытой навсегда.
+     */
+    public void recordCancelled() {
+        if (state.get() == State.HALF_OPEN) {
+            openedAt = System.nanoTime() - openDurationNanos;
+            state.compareAndSet(State.HALF_OPEN, State.OPEN);
+        }
+    }
+
+    /**
+     * Регистрирует действие, выполняемое при восстановлении связи с удаленным кешем.
+     * Действие выполняется асинхронно, после того как цепь уже замкнута.
+     */
+    public void addCloseListener(Runnable listener) {
+        closeListeners.add(listener);
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public boolean isOpen() {
+        return state.get() != State.CLOSED;
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    public long getShortCircuitedCount() {
+        return shortCircuited.sum();
+    }
+
+    private boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+            // Пропускаем ровно один пробный вызов
+            return state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        }
+        return false;
+    }
+
+    private void onSuccess(long durationNanos) {
+        if (durationNanos > slowCallNanos) {
+            logger.debug("Slow remote cache call in breaker '{}': {} ms", name, durationNanos / 1_000_000);
+            onFailure();
+            return;
+        }
+        consecutiveFailures.set(0);
+        if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            logger.info("Cache circuit breaker '{}' closed, remote cache is available again", name);
+            try {
+                listenerExecutor.execute(this::runCloseListeners);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Cache circuit breaker '{}' close listeners rejected: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    private void runCloseListeners() {
+        for (Runnable listener : closeListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                logger.warn("Cache circuit breaker '{}' close listener failed: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    private void onFailure() {
+        failures.increment();
+        if (state.compareAndSet(State.HALF_OPEN, State.OPEN)) {
+            openedAt = System.nanoTime();
+            logger.warn("Cache circuit breaker '{}' probe failed, staying open", name);
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold
+                && state.compareAndSet(State.CLOSED, State.OPEN)) {
+            openedAt = System.nanoTime();
+            logger.warn("Cache circuit breaker '{}' opened after {} consecutive failures, serving from local cache",
+                    name, failureThreshold);
+        }
+    }
+}
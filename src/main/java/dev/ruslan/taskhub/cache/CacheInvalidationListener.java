@@ -0,0 +1,40 @@
+package dev.ruslan.taskhub.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Получает инвалидации от других узлов и сбрасывает соответствующие записи L1
+ */
+public class CacheInvalidationListener implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    private final TwoLevelCacheManager cacheManager;
+    private final String nodeId;
+
+    public CacheInvalidationListener(TwoLevelCacheManager cacheManager, String nodeId) {
+        this.cacheManager = cacheManager;
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\" + CacheInvalidationPublisher.SEPARATOR, 3);
+        if (parts.length != 3) {
+            logger.warn("Ignoring malformed cache invalidation message: {}", body);
+            return;
+        }
+        if (nodeId.equals(parts[0])) {
+            return;
+        }
+        String key = CacheInvalidationPublisher.CLEAR_ALL.equals(parts[2]) ? null : parts[2];
+        cacheManager.evictLocal(parts[1], key);
+        logger.debug("Applied remote cache invalidation {}::{}", parts[1], parts[2]);
+    }
+}
@@ -0,0 +1,80 @@
+package dev.ruslan.taskhub.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Рассылка инвалидаций L1-кешей через Redis pub/sub.
+ * Формат сообщения: {@code nodeId|cacheName|key}, для очистки кеша key = {@value #CLEAR_ALL}.
+ */
+public class CacheInvalidationPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationPublisher.class);
+
+    public static final String CHANNEL = "taskhub:cache:invalidation";
+    static final String CLEAR_ALL = "*";
+    static final String SEPARATOR = "|";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheCircuitBreaker circuitBreaker;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate, CacheCircuitBreaker circuitBreaker) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Идентификатор текущего узла, свои сообщения узел игнорирует
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(cacheName, key);
+    }
+
+    /**
+     * Рассылает удаление нескольких ключей одним pipeline
+     */
+    public void publishEvictAll(String cacheName, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        byte[] channel = CHANNEL.getBytes(StandardCharsets.UTF_8);
+        circuitBreaker.run(
+            () -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                keys.forEach(key -> connection.publish(channel,
+                    evictMessage(cacheName, key).getBytes(StandardCharsets.UTF_8)));
+                return null;
+            }),
+            () -> logger.debug("Skipped cache invalidation broadcast for {} keys of {}: Redis unavailable",
+                keys.size(), cacheName));
+    }
+
+    public void publishClear(String cacheName) {
+        publish(cacheName, CLEAR_ALL);
+    }
+
+    /**
+     * Сообщение об удалении ключа для отправки в {@link #CHANNEL} в обход этого класса,
+     * например через реактивный клиент
+     */
+    public String evictMessage(String cacheName, String key) {
+        return nodeId + SEPARATOR + cacheName + SEPARATOR + key;
+    }
+
+    private void publish(String cacheName, String key) {
+        // Без рассылки копии на других узлах устареют не дольше чем на TTL L1
+        circuitBreaker.run(
+            () -> redisTemplate.convertAndSend(CHANNEL, evictMessage(cacheName, key)),
+            () -> logger.debug("Skipped cache invalidation broadcast for {}::{}: Redis unavailable", cacheName, key));
+    }
+}
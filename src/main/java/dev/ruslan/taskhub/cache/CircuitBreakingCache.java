@@ -0,0 +1,160 @@
+package dev.ruslan.taskhub.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Обертка удаленного кеша с circuit breaker'ом.
+ * Пока цепь разомкнута, чтения считаются промахом, а записи пропускаются.
+ * Ключи, измененные за это время, запоминаются и удаляются из удаленного кеша
+ * при восстановлении, чтобы в нем не осталось устаревших значений.
+ */
+public class CircuitBreakingCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakingCache.class);
+
+    private final Cache delegate;
+    private final CacheCircuitBreaker circuitBreaker;
+    private final int maxPendingInvalidations;
+    private final Set<Object> pendingInvalidations = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pendingOverflow = new AtomicBoolean();
+
+    public CircuitBreakingCache(Cache delegate, CacheCircuitBreaker circuitBreaker, int maxPendingInvalidations) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.maxPendingInvalidations = maxPendingInvalidations;
+        circuitBreaker.addCloseListener(this::replayPendingInvalidations);
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    public CacheCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        if (isPendingInvalidation(key)) {
+            return null;
+        }
+        return circuitBreaker.execute(() -> delegate.get(key), () -> null);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        if (isPendingInvalidation(key)) {
+            return null;
+        }
+        return circuitBreaker.execute(() -> delegate.get(key, type), () -> null);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            @SuppressWarnings("unchecked")
+            T value = (T) cached.get();
+            return value;
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        circuitBreaker.run(() -> delegate.put(key, value), () -> rememberInvalidation(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        circuitBreaker.run(() -> delegate.evict(key), () -> rememberInvalidation(key));
+    }
+
+    @Override
+    public void clear() {
+        circuitBreaker.run(delegate::clear, () -> pendingOverflow.set(true));
+    }
+
+    /**
+     * Выполняет произвольную операцию над удаленным кешем под защитой breaker'а
+     *
+     * @return false если операция не выполнена
+     */
+    public boolean runGuarded(Runnable operation) {
+        return circuitBreaker.execute(() -> {
+            operation.run();
+            return Boolean.TRUE;
+        }, () -> Boolean.FALSE);
+    }
+
+    /**
+     * Значение ключа могло устареть за время недоступности и еще не удалено из удаленного кеша.
+     * Такое чтение считается промахом, иначе устаревшее значение попало бы обратно в L1.
+     */
+    private boolean isPendingInvalidation(Object key) {
+        return pendingOverflow.get() || (!pendingInvalidations.isEmpty() && pendingInvalidations.contains(key));
+    }
+
+    private void rememberInvalidation(Object key) {
+        if (pendingOverflow.get()) {
+            return;
+        }
+        if (pendingInvalidations.size() >= maxPendingInvalidations) {
+            pendingOverflow.set(true);
+            pendingInvalidations.clear();
+            return;
+        }
+        pendingInvalidations.add(key);
+    }
+
+    /**
+     * Выполняется в фоне после замыкания цепи; до этого чтения ожидающих ключей - промахи.
+     * Ключ снимается из ожидающих только после успешного удаления, флаг переполнения -
+     * только после успешной очистки: при ошибке они останутся до следующего восстановления
+     */
+    private void replayPendingInvalidations() {
+        if (pendingOverflow.get()) {
+            logger.info("Clearing remote cache '{}' after outage: too many changes to replay", getName());
+            delegate.clear();
+            pendingInvalidations.clear();
+            pendingOverflow.set(false);
+            return;
+        }
+        int replayed = 0;
+        try {
+            for (Object key : pendingInvalidations) {
+                delegate.evict(key);
+                pendingInvalidations.remove(key);
+                replayed++;
+            }
+        } finally {
+            if (replayed > 0) {
+                logger.info("Evicted {} keys from remote cache '{}' changed during outage", replayed, getName());
+            }
+        }
+    }
+}
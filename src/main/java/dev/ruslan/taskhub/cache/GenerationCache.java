@@ -0,0 +1,89 @@
+package dev.ruslan.taskhub.cache;
+
+import dev.ruslan.taskhub.service.ModelRouter;
+import dev.ruslan.taskhub.service.OpenRouterClient;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+
+/**
+ * Кеш сгенерированных AI задач в двухуровневом кеше "generation".
+ * <p>
+ * Ключ - нормализованная тема вместе со списком моделей и версией промпта, поэтому смена
+ * моделей или промпта не отдает старые ответы. Загрузка через {@link #get(String, Callable)}
+ * идет в режиме single-flight: одновременные запросы той же темы на узле ждут один вызов
+ * модели. Ошибки генерации не кешируются - загрузчик должен бросать исключение.
+ */
+@Component
+public class GenerationCache {
+
+    public static final String CACHE_NAME = "generation";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Только "предложенческая" пунктуация: "C++" и "C#" должны остаться разными темами
+    private static final Pattern EDGE_PUNCTUATION = Pattern.compile("^[\\s.,;:!?…\"'«»]+|[\\s.,;:!?…\"'«»]+$");
+
+    private final CacheManager cacheManager;
+    private final String keyPrefix;
+
+    public GenerationCache(CacheManager cacheManager, ModelRouter modelRouter) {
+        this.cacheManager = cacheManager;
+        // Ответ любой модели из списка считается равноценным, поэтому в ключе весь список
+        this.keyPrefix = String.join(",", modelRouter.getModels()) + "|" + OpenRouterClient.PROMPT_VERSION + "|";
+    }
+
+    /**
+     * Сгенерированная задача из кеша, без обращения к модели
+     */
+    public Optional<String> getIfPresent(String topic) {
+        return Optional.ofNullable(cache().get(key(topic), String.class));
+    }
+
+    /**
+     * Сгенерированная задача из кеша или результат загрузчика, который кладется в кеш
+     */
+    public String get(String topic, Callable<String> generator) {
+        try {
+            return cache().get(key(topic), generator);
+        } catch (Cache.ValueRetrievalException e) {
+            // Отдаем вызывающему исходную ошибку генерации
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Кладет сгенерированную задачу в кеш (для неблокирующей генерации мимо {@link #get(String, Callable)})
+     */
+    public void put(String topic, String content) {
+        cache().put(key(topic), content);
+    }
+
+    /**
+     * Ключ кеша: темы с одинаковым ключом дают одинаковый ответ
+     */
+    public String key(String topic) {
+        return keyPrefix + normalize(topic);
+    }
+
+    /**
+     * Приводит тему к каноническому виду: регистр, пробелы и пунктуация по краям не важны
+     */
+    static String normalize(String topic) {
+        String normalized = Normalizer.normalize(topic, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ");
+        return EDGE_PUNCTUATION.matcher(normalized).replaceAll("");
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CACHE_NAME);
+    }
+}
@@ -0,0 +1,27 @@
+package dev.ruslan.taskhub.cache;
+
+/**
+ * Политика заполнения кеша "task" результатами списочных запросов
+ */
+public enum ListCachePolicy {
+
+    /**
+     * Списочные запросы кеш не заполняют
+     */
+    NONE,
+
+    /**
+     * Кешируется только первая страница (без курсора)
+     */
+    FIRST_PAGE,
+
+    /**
+     * Кешируются только "горячие" задачи, которые часто запрашивают по ID
+     */
+    HOT,
+
+    /**
+     * Кешируется каждая задача любой страницы
+     */
+    ALL
+}
@@ -0,0 +1,179 @@
+package dev.ruslan.taskhub.cache;
+
+import dev.ruslan.taskhub.model.dto.TaskDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Неблокирующий доступ к кешу "task" в Redis для реактивного профиля.
+ * Ключи, TTL и формат значений совпадают с L2 двухуровневого кеша, поэтому
+ * servlet- и реактивные узлы делят одни записи; после изменения L1-копии
+ * на других узлах сбрасываются через тот же pub/sub-канал.
+ * Ошибки и таймауты Redis превращаются в промах - запрос уходит в базу - и учитываются
+ * circuit breaker'ом. Ключи, запись или удаление которых пропущены, запоминаются,
+ * читаются как промах и удаляются из Redis после восстановления, как в {@link CircuitBreakingCache}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTaskCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTaskCache.class);
+
+    private static final String CACHE_NAME = "task";
+    // Префикс RedisCacheManager по умолчанию: "имя_кеша::"
+    private static final String KEY_PREFIX = CACHE_NAME + "::";
+
+    private final ReactiveRedisTemplate<String, TaskDto> redisTemplate;
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final CacheCircuitBreaker circuitBreaker;
+    private final TaskCollectionVersion collectionVersion;
+    private final Duration ttl;
+    private final Duration timeout;
+    private final int maxPendingInvalidations;
+    private final Set<Long> pendingInvalidations = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pendingOverflow = new AtomicBoolean();
+
+    public ReactiveTaskCache(ReactiveRedisTemplate<String, TaskDto> reactiveTaskRedisTemplate,
+                             ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                             CacheInvalidationPublisher invalidationPublisher,
+                             CacheCircuitBreaker redisCacheCircuitBreaker,
+                             TaskCollectionVersion collectionVersion,
+                             @Value("${cache.redis.ttl:60}") long ttlSeconds,
+                             @Value("${cache.redis.timeout:2000}") long timeoutMillis,
+                             @Value("${cache.breaker.max-pending-invalidations:10000}") int maxPendingInvalidations) {
+        this.redisTemplate = reactiveTaskRedisTemplate;
+        this.stringRedisTemplate = reactiveStringRedisTemplate;
+        this.invalidationPublisher = invalidationPublisher;
+        this.circuitBreaker = redisCacheCircuitBreaker;
+        this.collectionVersion = collectionVersion;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.maxPendingInvalidations = maxPendingInvalidations;
+        circuitBreaker.addCloseListener(this::replayPendingInvalidations);
+    }
+
+    public Mono<TaskDto> get(Long id) {
+        if (isPendingInvalidation(id)) {
+            return Mono.empty();
+        }
+        return guarded(redisTemplate.opsForValue().get(key(id)), "read of task " + id, () -> { });
+    }
+
+    public Mono<Void> put(TaskDto task) {
+        Long id = task.getId();
+        return guarded(redisTemplate.opsForValue().set(key(id), task, ttl)
+                .then(broadcastEvict(id)), "write of task " + id, () -> rememberInvalidation(id));
+    }
+
+    public Mono<Void> evict(Long id) {
+        return guarded(redisTemplate.delete(key(id))
+                .then(broadcastEvict(id)), "evict of task " + id, () -> rememberInvalidation(id));
+    }
+
+    /**
+     * Увеличивает версию коллекции задач (см. {@link TaskCollectionVersion}), вызывать после коммита.
+     * Если Redis недоступен, увеличение откладывается до восстановления.
+     */
+    public Mono<Void> bumpCollectionVersion() {
+        return guarded(stringRedisTemplate.execute(TaskCollectionVersion.BUMP_SCRIPT,
+                        List.of(TaskCollectionVersion.KEY), List.of(TaskCollectionVersion.initialValue()))
+                .then(), "collection version bump", collectionVersion::deferBump);
+    }
+
+    private Mono<Void> broadcastEvict(Long id) {
+        return stringRedisTemplate.convertAndSend(CacheInvalidationPublisher.CHANNEL,
+                invalidationPublisher.evictMessage(CACHE_NAME, String.valueOf(id))).then();
+    }
+
+    /**
+     * Пока circuit breaker разомкнут, Redis не трогаем; результат вызова сообщаем breaker'у
+     *
+     * @param onSkipped выполняется, если операция пропущена или не удалась
+     */
+    private <T> Mono<T> guarded(Mono<T> operation, String action, Runnable onSkipped) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                onSkipped.run();
+                return Mono.empty();
+            }
+            long start = System.nanoTime();
+            return operation
+                    .timeout(timeout)
+                    .doOnSuccess(result -> circuitBreaker.recordSuccess(System.nanoTime() - start))
+                    .doOnCancel(circuitBreaker::recordCancelled)
+                    .onErrorResume(e -> {
+                        circuitBreaker.recordFailure(e);
+                        logger.debug("Reactive task cache {} failed: {}", action, e.getMessage());
+                        onSkipped.run();
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    private boolean isPendingInvalidation(Long id) {
+        return pendingOverflow.get() || (!pendingInvalidations.isEmpty() && pendingInvalidations.contains(id));
+    }
+
+    private void rememberInvalidation(Long id) {
+        if (pendingOverflow.get()) {
+            return;
+        }
+        if (pendingInvalidations.size() >= maxPendingInvalidations) {
+            pendingOverflow.set(true);
+            pendingInvalidations.clear();
+            return;
+        }
+        pendingInvalidations.add(id);
+    }
+
+    /**
+     * Выполняется в фоне после замыкания цепи (поток breaker'а, не event loop).
+     * Ключ снимается из ожидающих только после успешного удаления.
+     */
+    private void replayPendingInvalidations() {
+        if (pendingOverflow.get()) {
+            logger.info("Clearing remote cache '{}' after outage: too many changes to replay", CACHE_NAME);
+            stringRedisTemplate.scan(ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build())
+                    .buffer(500)
+                    .concatMap(keys -> stringRedisTemplate.delete(keys.toArray(String[]::new)))
+                    .then()
+                    .block();
+            invalidationPublisher.publishClear(CACHE_NAME);
+            pendingInvalidations.clear();
+            pendingOverflow.set(false);
+            return;
+        }
+        List<String> replayed = new ArrayList<>();
+        try {
+            for (Long id : pendingInvalidations) {
+                redisTemplate.delete(key(id)).block(timeout);
+                pendingInvalidations.remove(id);
+                replayed.add(String.valueOf(id));
+            }
+        } finally {
+            if (!replayed.isEmpty()) {
+                invalidationPublisher.publishEvictAll(CACHE_NAME, replayed);
+                logger.info("Evicted {} keys from remote cache '{}' changed during outage", replayed.size(), CACHE_NAME);
+            }
+        }
+    }
+
+    private static String key(Long id) {
+        return KEY_PREFIX + id;
+    }
+}
@@ -0,0 +1,116 @@
+package dev.ruslan.taskhub.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Пакетная запись в кеш.
+ * Для двухуровневого кеша значения кладутся в L1 напрямую, а в L2 - пакетом.
+ * Для Redis все записи отправляются одним pipeline вместо N синхронных round-trip'ов,
+ * ключи, значения и TTL формируются по конфигурации самого RedisCache.
+ */
+@Component
+public class RedisBulkCacheWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisBulkCacheWriter.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    public RedisBulkCacheWriter(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Записывает все значения в кеш.
+     * Для transaction-aware кеша запись откладывается до коммита транзакции.
+     */
+    public void putAll(Cache cache, Map<?, ?> entries) {
+        putAll(cache, entries, false);
+    }
+
+    /**
+     * Записывает измененные значения: в отличие от {@link #putAll(Cache, Map)}
+     * другие узлы получают инвалидацию своих L1-копий этих ключей.
+     */
+    public void replaceAll(Cache cache, Map<?, ?> entries) {
+        putAll(cache, entries, true);
+    }
+
+    private void putAll(Cache cache, Map<?, ?> entries, boolean broadcast) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            Cache target = decorator.getTargetCache();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        putAll(target, entries, broadcast);
+                    }
+                });
+            } else {
+                putAll(target, entries, broadcast);
+            }
+            return;
+        }
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.putAllLocal(entries);
+            putAll(twoLevelCache.getRemoteCache(), entries, false);
+            if (broadcast) {
+                twoLevelCache.publishEvictAll(entries.keySet());
+            }
+            return;
+        }
+        if (cache instanceof CircuitBreakingCache guardedCache) {
+            if (!guardedCache.runGuarded(() -> putAll(guardedCache.getDelegate(), entries, false))) {
+                logger.debug("Skipped bulk write into remote cache '{}': circuit breaker is open", cache.getName());
+            }
+            return;
+        }
+        if (cache instanceof RedisCache redisCache) {
+            pipeline(redisCache, entries);
+            return;
+        }
+        entries.forEach(cache::put);
+    }
+
+    private void pipeline(RedisCache cache, Map<?, ?> entries) {
+        RedisCacheConfiguration config = cache.getCacheConfiguration();
+        String prefix = config.usePrefix() ? config.getKeyPrefixFor(cache.getName()) : "";
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            RedisStringCommands commands = connection.stringCommands();
+            entries.forEach((key, value) -> {
+                if (value == null) {
+                    return;
+                }
+                String cacheKey = prefix + config.getConversionService().convert(key, String.class);
+                byte[] keyBytes = ByteUtils.getBytes(config.getKeySerializationPair().write(cacheKey));
+                byte[] valueBytes = ByteUtils.getBytes(config.getValueSerializationPair().write(value));
+                Duration ttl = config.getTtlFunction().getTimeToLive(key, value);
+                Expiration expiration = ttl.isZero() || ttl.isNegative()
+                        ? Expiration.persistent()
+                        : Expiration.from(ttl);
+                commands.set(keyBytes, valueBytes, expiration, RedisStringCommands.SetOption.upsert());
+            });
+            return null;
+        });
+        logger.debug("Pipelined {} entries into Redis cache '{}'", entries.size(), cache.getName());
+    }
+}
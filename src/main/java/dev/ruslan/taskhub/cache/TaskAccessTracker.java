@@ -0,0 +1,46 @@
+package dev.ruslan.taskhub.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Учет частоты обращений к задачам по ID.
+ * Счетчики хранятся в ограниченном по размеру Caffeine-кеше и сбрасываются,
+ * если к задаче не обращались в течение окна.
+ */
+@Component
+public class TaskAccessTracker {
+
+    private final Cache<Long, AtomicInteger> accessCounts;
+    private final int hotThreshold;
+
+    public TaskAccessTracker(@Value("${cache.task.hot-threshold:3}") int hotThreshold,
+                             @Value("${cache.task.hot-tracker-size:10000}") long trackerSize,
+                             @Value("${cache.task.hot-window:10m}") Duration window) {
+        this.hotThreshold = hotThreshold;
+        this.accessCounts = Caffeine.newBuilder()
+                .maximumSize(trackerSize)
+                .expireAfterAccess(window)
+                .build();
+    }
+
+    /**
+     * Регистрирует обращение к задаче
+     */
+    public void recordAccess(Long id) {
+        accessCounts.get(id, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * Проверяет, является ли задача "горячей"
+     */
+    public boolean isHot(Long id) {
+        AtomicInteger count = accessCounts.getIfPresent(id);
+        return count != null && count.get() >= hotThreshold;
+    }
+}
@@ -0,0 +1,90 @@
+package dev.ruslan.taskhub.cache;
+
+import dev.ruslan.taskhub.model.dto.TaskDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Заполнение кеша "task" результатами списочных запросов по настраиваемой политике
+ */
+@Component
+public class TaskCachePopulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskCachePopulator.class);
+
+    private final CacheManager cacheManager;
+    private final RedisBulkCacheWriter bulkCacheWriter;
+    private final TaskAccessTracker accessTracker;
+    private final ListCachePolicy policy;
+    private final DistributionSummary entriesPerCall;
+
+    public TaskCachePopulator(CacheManager cacheManager,
+                              RedisBulkCacheWriter bulkCacheWriter,
+                              TaskAccessTracker accessTracker,
+                              MeterRegistry meterRegistry,
+                              @Value("${cache.task.list-policy:FIRST_PAGE}") ListCachePolicy policy) {
+        this.cacheManager = cacheManager;
+        this.bulkCacheWriter = bulkCacheWriter;
+        this.accessTracker = accessTracker;
+        this.policy = policy;
+        this.entriesPerCall = DistributionSummary.builder("taskhub.cache.list.writes")
+                .description("Количество записей в кеш \"task\" за один списочный запрос")
+                .baseUnit("entries")
+                .tag("policy", policy.name())
+                .register(meterRegistry);
+        logger.info("Task list cache population policy: {}", policy);
+    }
+
+    /**
+     * Кеширует задачи страницы согласно политике
+     *
+     * @param tasks     задачи страницы
+     * @param firstPage true если страница запрошена без курсора
+     * @return количество записанных в кеш задач
+     */
+    public int populate(List<TaskDto> tasks, boolean firstPage) {
+        Map<Long, TaskDto> entries = new LinkedHashMap<>();
+        for (TaskDto task : tasks) {
+            if (shouldCache(task, firstPage)) {
+                entries.put(task.getId(), task);
+            }
+        }
+
+        Cache taskCache = cacheManager.getCache("task");
+        if (taskCache == null || entries.isEmpty()) {
+            entriesPerCall.record(0);
+            return 0;
+        }
+
+        try {
+            bulkCacheWriter.putAll(taskCache, entries);
+            logger.debug("Cached {} of {} listed tasks (policy {})", entries.size(), tasks.size(), policy);
+        } catch (Exception e) {
+            // Кеш - оптимизация, ошибка записи не должна ломать выдачу списка
+            logger.warn("Failed to populate task cache from list: {}", e.getMessage());
+            entriesPerCall.record(0);
+            return 0;
+        }
+        entriesPerCall.record(entries.size());
+        return entries.size();
+    }
+
+    private boolean shouldCache(TaskDto task, boolean firstPage) {
+        return switch (policy) {
+            case NONE -> false;
+            case FIRST_PAGE -> firstPage;
+            case HOT -> accessTracker.isHot(task.getId());
+            case ALL -> true;
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package dev.ruslan.taskhub.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Версия коллекции задач для ETag списков и поиска: общий для всех узлов счетчик в Redis,
+ * который увеличивается после коммита каждого изменения задач.
+ * <p>
+ * Отсутствующий счетчик (новый или очищенный Redis) начинается с текущего времени в миллисекундах,
+ * чтобы версия не повторила выданную до очистки. Пока Redis недоступен, версия неизвестна
+ * и ответы для коллекций отдаются без ETag. Пропущенное за это время увеличение
+ * выполняется сразу после восстановления связи, чтобы другие узлы не отвечали 304
+ * по устаревшей версии.
+ */
+@Component
+public class TaskCollectionVersion {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskCollectionVersion.class);
+
+    public static final String KEY = "taskhub:tasks:version";
+
+    /**
+     * Увеличивает счетчик, при отсутствии сначала создает его от переданного значения
+     */
+    public static final RedisScript<Long> BUMP_SCRIPT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                redis.call('SET', KEYS[1], ARGV[1])
+            end
+            return redis.call('INCR', KEYS[1])
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheCircuitBreaker circuitBreaker;
+    private final AtomicBoolean bumpPending = new AtomicBoolean();
+
+    public TaskCollectionVersion(StringRedisTemplate redisTemplate, CacheCircuitBreaker redisCacheCircuitBreaker) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = redisCacheCircuitBreaker;
+        circuitBreaker.addCloseListener(this::bumpDeferred);
+    }
+
+    /**
+     * Текущая версия или null, если Redis недоступен
+     */
+    public Long current() {
+        // Изменение, версию которого не удалось увеличить, иначе осталось бы за старым ETag
+        bumpDeferred();
+        return circuitBreaker.execute(() -> {
+            String version = redisTemplate.opsForValue().get(KEY);
+            if (version == null) {
+                redisTemplate.opsForValue().setIfAbsent(KEY, initialValue());
+                version = redisTemplate.opsForValue().get(KEY);
+            }
+            return version != null ? Long.valueOf(version) : null;
+        }, () -> null);
+    }
+
+    /**
+     * Увеличивает версию после коммита текущей транзакции или сразу, если транзакции нет
+     */
+    public void bumpAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump();
+                }
+            });
+        } else {
+            bump();
+        }
+    }
+
+    public void bump() {
+        circuitBreaker.run(
+            () -> redisTemplate.execute(BUMP_SCRIPT, List.of(KEY), initialValue()),
+            this::deferBump);
+    }
+
+    /**
+     * Запоминает изменение, версию которого не удалось увеличить (в том числе реактивным клиентом);
+     * версия увеличится при восстановлении Redis
+     */
+    public void deferBump() {
+        bumpPending.set(true);
+        logger.warn("Task collection version bump deferred: Redis unavailable");
+    }
+
+    private void bumpDeferred() {
+        if (bumpPending.getAndSet(false)) {
+            bump();
+        }
+    }
+
+    public static String initialValue() {
+        return String.valueOf(System.currentTimeMillis());
+    }
+}
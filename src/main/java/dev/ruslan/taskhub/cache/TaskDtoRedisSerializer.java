@@ -0,0 +1,156 @@
+package dev.ruslan.taskhub.cache;
+
+import dev.ruslan.taskhub.model.dto.TaskDto;
+import dev.ruslan.taskhub.model.entity.TaskStatus;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Компактный бинарный сериализатор TaskDto для Redis с фиксированной раскладкой полей.
+ * <pre>
+ * [версия: 1 байт][флаги заполненных полей: 1 байт]
+ * [id: 8][title: 4 + UTF-8][description: 4 + UTF-8][status: 1 (ordinal)]
+ * [createdAt: 8 (секунды) + 4 (наносекунды)][updatedAt: 8 + 4]
+ * </pre>
+ * Отсутствующие (null) поля не пишутся. Значение с неизвестной версией
+ * (например, JSON из старого формата) читается как промах кеша.
+ * При любом изменении раскладки или порядка констант {@link TaskStatus}
+ * нужно увеличить {@link #FORMAT_VERSION}.
+ */
+public class TaskDtoRedisSerializer implements RedisSerializer<TaskDto> {
+
+    static final byte FORMAT_VERSION = 1;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_TITLE = 1 << 1;
+    private static final int HAS_DESCRIPTION = 1 << 2;
+    private static final int HAS_STATUS = 1 << 3;
+    private static final int HAS_CREATED_AT = 1 << 4;
+    private static final int HAS_UPDATED_AT = 1 << 5;
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    @Override
+    public byte[] serialize(TaskDto task) throws SerializationException {
+        if (task == null) {
+            return null;
+        }
+        byte[] title = task.getTitle() != null ? task.getTitle().getBytes(StandardCharsets.UTF_8) : null;
+        byte[] description = task.getDescription() != null
+                ? task.getDescription().getBytes(StandardCharsets.UTF_8)
+                : null;
+
+        int flags = 0;
+        int size = 2;
+        if (task.getId() != null) {
+            flags |= HAS_ID;
+            size += Long.BYTES;
+        }
+        if (title != null) {
+            flags |= HAS_TITLE;
+            size += Integer.BYTES + title.length;
+        }
+        if (description != null) {
+            flags |= HAS_DESCRIPTION;
+            size += Integer.BYTES + description.length;
+        }
+        if (task.getStatus() != null) {
+            flags |= HAS_STATUS;
+            size += 1;
+        }
+        if (task.getCreatedAt() != null) {
+            flags |= HAS_CREATED_AT;
+            size += Long.BYTES + Integer.BYTES;
+        }
+        if (task.getUpdatedAt() != null) {
+            flags |= HAS_UPDATED_AT;
+            size += Long.BYTES + Integer.BYTES;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(FORMAT_VERSION);
+        buffer.put((byte) flags);
+        if (task.getId() != null) {
+            buffer.putLong(task.getId());
+        }
+        if (title != null) {
+            buffer.putInt(title.length).put(title);
+        }
+        if (description != null) {
+            buffer.putInt(description.length).put(description);
+        }
+        if (task.getStatus() != null) {
+            buffer.put((byte) task.getStatus().ordinal());
+        }
+        if (task.getCreatedAt() != null) {
+            writeDateTime(buffer, task.getCreatedAt());
+        }
+        if (task.getUpdatedAt() != null) {
+            writeDateTime(buffer, task.getUpdatedAt());
+        }
+        return buffer.array();
+    }
+
+    @Override
+    public TaskDto deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < 2 || bytes[0] != FORMAT_VERSION) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+            int flags = buffer.get();
+            TaskDto task = new TaskDto();
+            if ((flags & HAS_ID) != 0) {
+                task.setId(buffer.getLong());
+            }
+            if ((flags & HAS_TITLE) != 0) {
+                task.setTitle(readString(buffer));
+            }
+            if ((flags & HAS_DESCRIPTION) != 0) {
+                task.setDescription(readString(buffer));
+            }
+            if ((flags & HAS_STATUS) != 0) {
+                task.setStatus(STATUSES[buffer.get()]);
+            }
+            if ((flags & HAS_CREATED_AT) != 0) {
+                task.setCreatedAt(readDateTime(buffer));
+            }
+            if ((flags & HAS_UPDATED_AT) != 0) {
+                task.setUpdatedAt(readDateTime(buffer));
+            }
+            return task;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new SerializationException("Corrupted TaskDto cache entry", e);
+        }
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return TaskDto.class;
+    }
+
+    private static void writeDateTime(ByteBuffer buffer, LocalDateTime dateTime) {
+        buffer.putLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(dateTime.getNano());
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer buffer) {
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
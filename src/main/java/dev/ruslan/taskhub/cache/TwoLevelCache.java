@@ -0,0 +1,331 @@
+package dev.ruslan.taskhub.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Двухуровневый кеш: локальный Caffeine (L1) перед общим Redis (L2).
+ * Чтение сначала идет в L1, промах - в L2 с подъемом значения в L1.
+ * Запись и удаление идут в оба уровня и рассылаются другим узлам,
+ * чтобы те сбросили свою L1-копию.
+ * <p>
+ * Загрузка через {@link #get(Object, Callable)} выполняется в режиме single-flight:
+ * на узле одновременно идет не больше одной загрузки на ключ, остальные ждут ее результат.
+ * Для горячих ключей включается вероятностное раннее обновление (XFetch), чтобы
+ * значение перезагружалось в фоне до истечения TTL.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCache.class);
+
+    /**
+     * Предельное ожидание чужой загрузки: страховка от загрузки, которая так и не завершилась
+     */
+    private static final long MAX_LOAD_WAIT_SECONDS = 30;
+
+    /**
+     * Результат раннего обновления, которое не было запущено: ждавшие его загружают значение сами
+     */
+    private static final Object SKIPPED = new Object();
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, LocalEntry> localCache;
+    private final Cache remoteCache;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final EarlyRefreshPolicy earlyRefreshPolicy;
+    private final long localTtlNanos;
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<Object, LocalEntry> localCache,
+                         long localTtlNanos,
+                         Cache remoteCache,
+                         CacheInvalidationPublisher invalidationPublisher,
+                         EarlyRefreshPolicy earlyRefreshPolicy) {
+        super(true);
+        this.name = name;
+        this.localCache = localCache;
+        this.localTtlNanos = localTtlNanos;
+        this.remoteCache = remoteCache;
+        this.invalidationPublisher = invalidationPublisher;
+        this.earlyRefreshPolicy = earlyRefreshPolicy;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    /**
+     * Общий (L2) кеш
+     */
+    public Cache getRemoteCache() {
+        return remoteCache;
+    }
+
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    public long getCoalescedLoadCount() {
+        return coalescedLoads.sum();
+    }
+
+    public long getEarlyRefreshCount() {
+        return earlyRefreshes.sum();
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        LocalEntry entry = localCache.getIfPresent(localKey);
+        if (entry != null) {
+            return entry.storeValue();
+        }
+        return lookupRemote(key, localKey);
+    }
+
+    /**
+     * Возвращает значение из кеша или загружает его через valueLoader.
+     * Результат null не кешируется.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        LocalEntry entry = localCache.getIfPresent(localKey);
+        if (entry != null) {
+            if (earlyRefreshPolicy.shouldRefresh(name, entry, localTtlNanos)) {
+                refreshAsync(key, localKey, valueLoader);
+            }
+            return (T) fromStoreValue(entry.storeValue());
+        }
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = inFlightLoads.putIfAbsent(localKey, load);
+        if (inFlight != null) {
+            coalescedLoads.increment();
+            return (T) awaitLoad(key, localKey, valueLoader, inFlight);
+        }
+
+        try {
+            Object storeValue = lookupRemote(key, localKey);
+            if (storeValue == null) {
+                storeValue = toStoreValueOrNull(load(key, localKey, valueLoader));
+            }
+            Object value = storeValue != null ? fromStoreValue(storeValue) : null;
+            load.complete(value);
+            return (T) value;
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlightLoads.remove(localKey, load);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        putWithoutBroadcast(key, value);
+        invalidationPublisher.publishEvict(name, localKey(key));
+    }
+
+    /**
+     * Кладет значения в L1 без записи в L2 и без рассылки инвалидации.
+     * Используется пакетной записью, которая сама пишет в L2.
+     */
+    public void putAllLocal(Map<?, ?> entries) {
+        entries.forEach((key, value) -> localCache.put(localKey(key), LocalEntry.of(toStoreValue(value), 0)));
+    }
+
+    /**
+     * Просит другие узлы сбросить L1-копии ключей, например после пакетного обновления
+     */
+    public void publishEvictAll(Collection<?> keys) {
+        invalidationPublisher.publishEvictAll(name, keys.stream().map(TwoLevelCache::localKey).toList());
+    }
+
+    @Override
+    public void evict(Object key) {
+        localCache.invalidate(localKey(key));
+        remoteCache.evict(key);
+        invalidationPublisher.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        localCache.invalidateAll();
+        remoteCache.clear();
+        invalidationPublisher.publishClear(name);
+    }
+
+    /**
+     * Сбрасывает L1-копию по сообщению от другого узла
+     */
+    void evictLocal(String localKey) {
+        localCache.invalidate(localKey);
+    }
+
+    /**
+     * Очищает L1 по сообщению от другого узла
+     */
+    void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    private Object lookupRemote(Object key, String localKey) {
+        ValueWrapper remoteValue = remoteCache.get(key);
+        if (remoteValue == null) {
+            return null;
+        }
+        Object storeValue = toStoreValue(remoteValue.get());
+        localCache.put(localKey, LocalEntry.of(storeValue, 0));
+        return storeValue;
+    }
+
+    /**
+     * Загружает значение из источника и кладет его в оба уровня без рассылки:
+     * другие узлы не держат более новой копии, сбрасывать им нечего
+     */
+    private Object load(Object key, String localKey, Callable<?> valueLoader) throws Exception {
+        loads.increment();
+        long start = System.nanoTime();
+        Object value = valueLoader.call();
+        long loadNanos = System.nanoTime() - start;
+        if (value != null) {
+            localCache.put(localKey, LocalEntry.of(toStoreValue(value), loadNanos));
+            remoteCache.put(key, value);
+        }
+        return value;
+    }
+
+    private void refreshAsync(Object key, String localKey, Callable<?> valueLoader) {
+        CompletableFuture<Object> refresh = new CompletableFuture<>();
+        if (inFlightLoads.putIfAbsent(localKey, refresh) != null) {
+            return;
+        }
+        try {
+            earlyRefreshPolicy.getExecutor().execute(() -> {
+                try {
+                    earlyRefreshes.increment();
+                    refresh.complete(load(key, localKey, valueLoader));
+                } catch (Exception e) {
+                    refresh.completeExceptionally(e);
+                    logger.warn("Early refresh of {}::{} failed: {}", name, localKey, e.getMessage());
+                } finally {
+                    inFlightLoads.remove(localKey, refresh);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Раннее обновление - оптимизация, при перегрузке или остановке просто пропускаем его
+            inFlightLoads.remove(localKey, refresh);
+            refresh.complete(SKIPPED);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object awaitLoad(Object key, String localKey, Callable<?> valueLoader, CompletableFuture<Object> inFlight) {
+        Object value;
+        try {
+            value = inFlight.get(MAX_LOAD_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        } catch (TimeoutException e) {
+            logger.warn("Load of {}::{} did not finish in {} s, loading again", name, localKey, MAX_LOAD_WAIT_SECONDS);
+            inFlightLoads.remove(localKey, inFlight);
+            return get(key, (Callable<Object>) valueLoader);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        return value == SKIPPED ? get(key, (Callable<Object>) valueLoader) : value;
+    }
+
+    private Object toStoreValueOrNull(Object value) {
+        return value != null ? toStoreValue(value) : null;
+    }
+
+    private void putWithoutBroadcast(Object key, Object value) {
+        localCache.put(localKey(key), LocalEntry.of(toStoreValue(value), 0));
+        remoteCache.put(key, value);
+    }
+
+    /**
+     * Ключи L1 приводятся к строке, как и в Redis, чтобы инвалидация
+     * по сообщению из pub/sub находила ту же запись
+     */
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * Запись L1: значение, момент записи и длительность загрузки из источника
+     */
+    public record LocalEntry(Object storeValue, long writtenAtNanos, long loadNanos) {
+
+        static LocalEntry of(Object storeValue, long loadNanos) {
+            return new LocalEntry(storeValue, System.nanoTime(), loadNanos);
+        }
+    }
+
+    /**
+     * Политика вероятностного раннего обновления (XFetch):
+     * обновляем, если {@code now - delta * beta * ln(rand) >= expiry},
+     * где delta - время загрузки значения (не меньше minDeltaNanos)
+     */
+    public static class EarlyRefreshPolicy {
+
+        private final Set<String> cacheNames;
+        private final double beta;
+        private final long minDeltaNanos;
+        private final Executor executor;
+
+        public EarlyRefreshPolicy(Set<String> cacheNames, double beta, long minDeltaNanos,
+                                  Executor executor) {
+            this.cacheNames = cacheNames;
+            this.beta = beta;
+            this.minDeltaNanos = minDeltaNanos;
+            this.executor = executor;
+        }
+
+        boolean shouldRefresh(String cacheName, LocalEntry entry, long ttlNanos) {
+            if (beta <= 0 || !cacheNames.contains(cacheName)) {
+                return false;
+            }
+            long delta = Math.max(entry.loadNanos(), minDeltaNanos);
+            long expiry = entry.writtenAtNanos() + ttlNanos;
+            double random = ThreadLocalRandom.current().nextDouble();
+            return System.nanoTime() - delta * beta * Math.log(random) >= expiry;
+        }
+
+        Executor getExecutor() {
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package dev.ruslan.taskhub.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * CacheManager, собирающий для каждого имени кеша {@link TwoLevelCache}
+ * из локального Caffeine и кеша удаленного CacheManager (Redis).
+ * Удаленный кеш защищен общим circuit breaker'ом: при недоступности Redis
+ * чтения обслуживаются из L1 и базы без ожидания таймаутов.
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager implements DisposableBean {
+
+    private final CacheManager remoteCacheManager;
+    private final Caffeine<Object, Object> localCacheBuilder;
+    private final long localTtlNanos;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final CacheCircuitBreaker circuitBreaker;
+    private final int maxPendingInvalidations;
+    private final TwoLevelCache.EarlyRefreshPolicy earlyRefreshPolicy;
+    private final ExecutorService refreshExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TwoLevelCache> twoLevelCaches = new ConcurrentHashMap<>();
+    private final Map<String, LocalCacheSpec> localCacheSpecs = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                Caffeine<Object, Object> localCacheBuilder,
+                                long localTtlNanos,
+                                CacheInvalidationPublisher invalidationPublisher,
+                                CacheCircuitBreaker circuitBreaker,
+                                int maxPendingInvalidations,
+                                TwoLevelCache.EarlyRefreshPolicy earlyRefreshPolicy,
+                                ExecutorService refreshExecutor,
+                                MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.localCacheBuilder = localCacheBuilder;
+        this.localTtlNanos = localTtlNanos;
+        this.invalidationPublisher = invalidationPublisher;
+        this.circuitBreaker = circuitBreaker;
+        this.maxPendingInvalidations = maxPendingInvalidations;
+        this.earlyRefreshPolicy = earlyRefreshPolicy;
+        this.refreshExecutor = refreshExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Задает отдельные размер и TTL L1 для кеша. Вызывать до первого обращения к кешу.
+     */
+    public void setLocalCacheConfiguration(String cacheName, Caffeine<Object, Object> localCacheBuilder,
+                                           long localTtlNanos) {
+        localCacheSpecs.put(cacheName, new LocalCacheSpec(localCacheBuilder, localTtlNanos));
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return List.of();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return twoLevelCaches.computeIfAbsent(name, cacheName -> {
+            LocalCacheSpec spec = localCacheSpecs.getOrDefault(cacheName,
+                    new LocalCacheSpec(localCacheBuilder, localTtlNanos));
+            com.github.benmanes.caffeine.cache.Cache<Object, TwoLevelCache.LocalEntry> localCache =
+                    spec.builder().build();
+            CaffeineCacheMetrics.monitor(meterRegistry, localCache, cacheName + ".l1");
+            Cache guardedRemoteCache = new CircuitBreakingCache(remoteCache, circuitBreaker, maxPendingInvalidations);
+            TwoLevelCache cache = new TwoLevelCache(cacheName, localCache, spec.ttlNanos(), guardedRemoteCache,
+                    invalidationPublisher, earlyRefreshPolicy);
+            registerLoadMetrics(cache);
+            return cache;
+        });
+    }
+
+    /**
+     * Применяет инвалидацию, полученную от другого узла, только к L1
+     *
+     * @param key ключ записи или null для очистки всего кеша
+     */
+    public void evictLocal(String cacheName, String key) {
+        TwoLevelCache cache = twoLevelCaches.get(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (key == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(key);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private void registerLoadMetrics(TwoLevelCache cache) {
+        FunctionCounter.builder("taskhub.cache.loads", cache, TwoLevelCache::getLoadCount)
+                .description("Загрузки значений из источника при промахе")
+                .tag("cache", cache.getName())
+                .tag("type", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("taskhub.cache.loads", cache, TwoLevelCache::getEarlyRefreshCount)
+                .description("Фоновые ранние обновления горячих ключей")
+                .tag("cache", cache.getName())
+                .tag("type", "early-refresh")
+                .register(meterRegistry);
+        FunctionCounter.builder("taskhub.cache.loads.coalesced", cache, TwoLevelCache::getCoalescedLoadCount)
+                .description("Промахи, дождавшиеся уже идущей загрузки того же ключа")
+                .tag("cache", cache.getName())
+                .register(meterRegistry);
+    }
+
+    private record LocalCacheSpec(Caffeine<Object, Object> builder, long ttlNanos) {}
+}
@@ -1,16 +1,23 @@
 package dev.ruslan.taskhub.config;
 
+import dev.ruslan.taskhub.cache.CacheCircuitBreaker;
+import dev.ruslan.taskhub.cache.CacheInvalidationListener;
+import dev.ruslan.taskhub.cache.CacheInvalidationPublisher;
+import dev.ruslan.taskhub.cache.GenerationCache;
+import dev.ruslan.taskhub.cache.TaskDtoRedisSerializer;
+import dev.ruslan.taskhub.cache.TwoLevelCache;
+import dev.ruslan.taskhub.cache.TwoLevelCacheManager;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
-import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -18,17 +25,28 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Конфигурация кеширования с Redis в качестве основного кеша
- * и Caffeine в качестве fallback кеша
+ * Конфигурация двухуровневого кеширования:
+ * локальный Caffeine (L1) перед общим Redis (L2)
  */
 @Configuration
 @EnableCaching
@@ -57,6 +75,42 @@ public class CacheConfig {
     @Value("${cache.caffeine.expire-after-write:60s}")
     private String caffeineExpireAfterWrite;
 
+    @Value("${cache.early-refresh.caches:task}")
+    private List<String> earlyRefreshCaches;
+
+    @Value("${cache.early-refresh.beta:1.0}")
+    private double earlyRefreshBeta;
+
+    @Value("${cache.early-refresh.min-delta:1s}")
+    private Duration earlyRefreshMinDelta;
+
+    @Value("${cache.early-refresh.threads:2}")
+    private int earlyRefreshThreads;
+
+    @Value("${cache.early-refresh.queue-capacity:256}")
+    private int earlyRefreshQueueCapacity;
+
+    @Value("${cache.generation.ttl:24h}")
+    private Duration generationTtl;
+
+    @Value("${cache.generation.local-maximum-size:200}")
+    private long generationLocalMaxSize;
+
+    @Value("${cache.generation.local-ttl:1h}")
+    private Duration generationLocalTtl;
+
+    @Value("${cache.breaker.failure-threshold:5}")
+    private int breakerFailureThreshold;
+
+    @Value("${cache.breaker.slow-call-threshold:250ms}")
+    private Duration breakerSlowCallThreshold;
+
+    @Value("${cache.breaker.open-duration:10s}")
+    private Duration breakerOpenDuration;
+
+    @Value("${cache.breaker.max-pending-invalidations:10000}")
+    private int breakerMaxPendingInvalidations;
+
     /**
      * Конфигурация подключения к Redis
      */
@@ -70,11 +124,17 @@ public class CacheConfig {
                 config.setPassword(redisPassword);
             }
 
-            LettuceConnectionFactory factory = new LettuceConnectionFactory(config);
+            // Таймаут команды ограничивает худший случай; при серии ошибок дальше работает circuit breaker
+            LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+                    .commandTimeout(Duration.ofMillis(redisTimeout))
+                    .build();
+
+            LettuceConnectionFactory factory = new LettuceConnectionFactory(config, clientConfig);
             factory.setValidateConnection(true);
             factory.afterPropertiesSet();
             
-            logger.info("Redis connection factory configured for {}:{}", redisHost, redisPort);
+            logger.info("Redis connection factory configured for {}:{} with command timeout {} ms",
+                    redisHost, redisPort, redisTimeout);
             return factory;
         } catch (Exception e) {
             logger.error("Failed to configure Redis connection factory: {}", e.getMessage());
@@ -109,11 +169,10 @@ public class CacheConfig {
     }
 
     /**
-     * Redis Cache Manager - основной кеш
+     * Redis Cache Manager - общий для всех узлов кеш второго уровня (L2)
      */
     @Bean
-    @Primary
-    public CacheManager redisCacheManager(RedisConnectionFactory redisConnectionFactory, ObjectMapper redisObjectMapper) {
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory redisConnectionFactory, ObjectMapper redisObjectMapper) {
         try {
             RedisCacheConfiguration cacheConfig = RedisCacheConfiguration.defaultCacheConfig()
                     .entryTtl(Duration.ofSeconds(redisTtl))
@@ -122,12 +181,25 @@ public class CacheConfig {
                     .serializeValuesWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
                             .fromSerializer(new GenericJackson2JsonRedisSerializer(redisObjectMapper)));
 
+            // Для задач - компактный бинарный формат вместо JSON с метаданными классов
+            RedisCacheConfiguration taskCacheConfig = cacheConfig
+                    .serializeValuesWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
+                            .fromSerializer(new TaskDtoRedisSerializer()));
+
+            // Сгенерированный Markdown - просто строка, живет дольше задач: ответ модели не устаревает
+            RedisCacheConfiguration generationCacheConfig = cacheConfig
+                    .entryTtl(generationTtl)
+                    .serializeValuesWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
+                            .fromSerializer(new StringRedisSerializer()));
+
+            // Транзакционность обеспечивает двухуровневый менеджер, оборачивающий этот кеш
             RedisCacheManager cacheManager = RedisCacheManager.builder(redisConnectionFactory)
                     .cacheDefaults(cacheConfig)
-                    .transactionAware()
+                    .withCacheConfiguration("task", taskCacheConfig)
+                    .withCacheConfiguration(GenerationCache.CACHE_NAME, generationCacheConfig)
                     .build();
 
-            logger.info("Redis cache manager configured with TTL: {} seconds (individual task caching only)", redisTtl);
+            logger.info("Redis cache manager configured with TTL: {} seconds (L2)", redisTtl);
             return cacheManager;
         } catch (Exception e) {
             logger.error("Failed to configure Redis cache manager: {}", e.getMessage());
@@ -136,24 +208,101 @@ public class CacheConfig {
     }
 
     /**
-     * Caffeine Cache Manager - fallback кеш
+     * Circuit breaker для Redis: состояние и счетчики публикуются в метриках actuator
      */
     @Bean
-    @ConditionalOnMissingBean(name = "redisCacheManager")
-    public CacheManager caffeineCacheManager() {
-        logger.warn("Redis is not available, using Caffeine as fallback cache");
-        
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCaffeine(Caffeine.newBuilder()
+    public CacheCircuitBreaker redisCacheCircuitBreaker(MeterRegistry meterRegistry) {
+        // Сброс пропущенных инвалидаций после восстановления идет в фоне, по одному за раз
+        CustomizableThreadFactory recoveryThreadFactory = new CustomizableThreadFactory("cache-breaker-");
+        recoveryThreadFactory.setDaemon(true);
+        CacheCircuitBreaker breaker = new CacheCircuitBreaker(
+                "redis", breakerFailureThreshold, breakerSlowCallThreshold, breakerOpenDuration,
+                Executors.newSingleThreadExecutor(recoveryThreadFactory));
+
+        Gauge.builder("taskhub.cache.breaker.state", breaker, b -> b.getState().ordinal())
+                .description("Состояние circuit breaker'а Redis: 0 - CLOSED, 1 - HALF_OPEN, 2 - OPEN")
+                .tag("breaker", "redis")
+                .register(meterRegistry);
+        FunctionCounter.builder("taskhub.cache.breaker.failures", breaker, CacheCircuitBreaker::getFailureCount)
+                .description("Ошибки и медленные вызовы Redis")
+                .tag("breaker", "redis")
+                .register(meterRegistry);
+        FunctionCounter.builder("taskhub.cache.breaker.fallbacks", breaker, CacheCircuitBreaker::getShortCircuitedCount)
+                .description("Операции, обслуженные без Redis из-за разомкнутой цепи")
+                .tag("breaker", "redis")
+                .register(meterRegistry);
+
+        logger.info("Redis cache circuit breaker configured: {} failures or calls slower than {} open it for {}",
+                    breakerFailureThreshold, breakerSlowCallThreshold, breakerOpenDuration);
+        return breaker;
+    }
+
+    /**
+     * Рассылка инвалидаций локальных кешей другим узлам
+     */
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate,
+                                                                 CacheCircuitBreaker redisCacheCircuitBreaker) {
+        return new CacheInvalidationPublisher(stringRedisTemplate, redisCacheCircuitBreaker);
+    }
+
+    /**
+     * Двухуровневый Cache Manager - Caffeine (L1) на каждом узле перед Redis (L2)
+     */
+    @Bean
+    @Primary
+    public TwoLevelCacheManager cacheManager(RedisCacheManager redisCacheManager,
+                                             CacheInvalidationPublisher cacheInvalidationPublisher,
+                                             CacheCircuitBreaker redisCacheCircuitBreaker,
+                                             MeterRegistry meterRegistry) {
+        long localTtlSeconds = parseDuration(caffeineExpireAfterWrite);
+        Caffeine<Object, Object> localCacheBuilder = Caffeine.newBuilder()
                 .maximumSize(caffeineMaxSize)
-                .expireAfterWrite(parseDuration(caffeineExpireAfterWrite), TimeUnit.SECONDS)
-                .recordStats());
+                .expireAfterWrite(localTtlSeconds, TimeUnit.SECONDS)
+                .recordStats();
+
+        // Фоновые ранние обновления - best effort: при переполнении очереди пропускаются.
+        // AbortPolicy обязательна: TwoLevelCache по исключению снимает незапущенное обновление из in-flight
+        ExecutorService refreshExecutor = new ThreadPoolExecutor(
+                earlyRefreshThreads, earlyRefreshThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(earlyRefreshQueueCapacity),
+                new CustomizableThreadFactory("cache-refresh-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        TwoLevelCache.EarlyRefreshPolicy earlyRefreshPolicy = new TwoLevelCache.EarlyRefreshPolicy(
+                Set.copyOf(earlyRefreshCaches), earlyRefreshBeta, earlyRefreshMinDelta.toNanos(), refreshExecutor);
 
-        logger.info("Caffeine cache manager configured as fallback with max size: {} and TTL: {}", 
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+                redisCacheManager, localCacheBuilder, TimeUnit.SECONDS.toNanos(localTtlSeconds),
+                cacheInvalidationPublisher, redisCacheCircuitBreaker, breakerMaxPendingInvalidations,
+                earlyRefreshPolicy, refreshExecutor, meterRegistry);
+        cacheManager.setTransactionAware(true);
+        cacheManager.setLocalCacheConfiguration(GenerationCache.CACHE_NAME,
+                Caffeine.newBuilder()
+                        .maximumSize(generationLocalMaxSize)
+                        .expireAfterWrite(generationLocalTtl)
+                        .recordStats(),
+                generationLocalTtl.toNanos());
+
+        logger.info("Two-level cache manager configured: Caffeine L1 (max size: {}, TTL: {}) in front of Redis L2",
                     caffeineMaxSize, caffeineExpireAfterWrite);
         return cacheManager;
     }
 
+    /**
+     * Подписка на инвалидации L1 от других узлов
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                            TwoLevelCacheManager cacheManager,
+                                                                            CacheInvalidationPublisher cacheInvalidationPublisher) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(
+                new CacheInvalidationListener(cacheManager, cacheInvalidationPublisher.getNodeId()),
+                new ChannelTopic(CacheInvalidationPublisher.CHANNEL));
+        return container;
+    }
+
     /**
      * Парсинг строки продолжительности в секунды
      */
@@ -0,0 +1,43 @@
+package dev.ruslan.taskhub.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Пул соединений ClickHouse, отдельный от пула JPA (Postgres).
+ * Бины объявлены с defaultCandidate = false: автоконфигурация основного DataSource
+ * не отключается, а пул ClickHouse внедряется только по квалификатору.
+ * Метрики (hikaricp.*) и health-индикатор Boot подключает для обоих пулов.
+ */
+@Configuration
+public class ClickHouseConfig {
+
+    /**
+     * Адрес и учетные данные ClickHouse (clickhouse.datasource.url/username/password)
+     */
+    @Bean(defaultCandidate = false)
+    @Qualifier("clickHouseDataSource")
+    @ConfigurationProperties("clickhouse.datasource")
+    public DataSourceProperties clickHouseDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * Пул Hikari для ClickHouse, размер и таймауты задаются в clickhouse.datasource.hikari.*
+     */
+    @Bean(defaultCandidate = false)
+    @Qualifier("clickHouseDataSource")
+    @ConfigurationProperties("clickhouse.datasource.hikari")
+    public HikariDataSource clickHouseDataSource(
+            @Qualifier("clickHouseDataSource") DataSourceProperties clickHouseDataSourceProperties) {
+        HikariDataSource dataSource = clickHouseDataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("clickhouse");
+        return dataSource;
+    }
+}
@@ -1,5 +1,6 @@
 package dev.ruslan.taskhub.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
@@ -34,6 +35,26 @@ public class CorsConfig implements WebMvcConfigurer {
 
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        // Применяем CORS конфигурацию ко всем путям
+        source.registerCorsConfiguration("/**", corsConfiguration());
+        
+        return source;
+    }
+
+    /**
+     * Тот же CORS для реактивного профиля, его подхватывает ServerHttpSecurity.cors()
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public org.springframework.web.cors.reactive.CorsConfigurationSource reactiveCorsConfigurationSource() {
+        org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource source =
+            new org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", corsConfiguration());
+        return source;
+    }
+
+    private CorsConfiguration corsConfiguration() {
         CorsConfiguration configuration = new CorsConfiguration();
         
         // Для разработки разрешаем запросы с локальных адресов
@@ -58,16 +79,12 @@ public class CorsConfig implements WebMvcConfigurer {
         // Указываем, какие заголовки можно читать на фронтенде
         configuration.setExposedHeaders(Arrays.asList(
             "Authorization", "Content-Type", "X-Requested-With", "accept", "Origin", 
-            "Access-Control-Request-Method", "Access-Control-Request-Headers"
+            "Access-Control-Request-Method", "Access-Control-Request-Headers", "ETag", "Last-Modified"
         ));
         
         // Кеширование preflight запросов
         configuration.setMaxAge(3600L);
         
-        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        // Применяем CORS конфигурацию ко всем путям
-        source.registerCorsConfiguration("/**", configuration);
-        
-        return source;
+        return configuration;
     }
 }
\ No newline at end of file
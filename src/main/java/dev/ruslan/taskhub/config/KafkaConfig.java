@@ -8,6 +8,7 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
@@ -29,6 +30,12 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${spring.kafka.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     /**
      * Конфигурация Producer
      */
@@ -78,7 +85,7 @@ public class KafkaConfig {
         // Настройки поведения Consumer
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false); // Ручное подтверждение
-        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 100);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords); // Размер пакета для batch listener'ов
         
         return new DefaultKafkaConsumerFactory<>(props);
     }
@@ -95,8 +102,17 @@ public class KafkaConfig {
         
         // Настройки контейнера
         factory.setConcurrency(3); // Количество потоков для обработки
-        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        // Listener получает весь poll списком и подтверждает его одним коммитом
+        factory.setBatchListener(true);
+        // Подтверждение пакета приходит из потока записи в ClickHouse после сброса,
+        // контейнер коммитит offset'ы в потоке consumer'а при следующем poll
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
         factory.getContainerProperties().setPollTimeout(3000);
+        if (virtualThreads) {
+            // Фабрика своя, поэтому spring.threads.virtual.enabled до нее не доходит сам:
+            // потоки consumer'ов, как и у автоконфигурированной фабрики Boot, делаем виртуальными
+            factory.getContainerProperties().setListenerTaskExecutor(new VirtualThreadTaskExecutor("kafka-"));
+        }
         
         // Обработка ошибок
         factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler());
@@ -0,0 +1,123 @@
+package dev.ruslan.taskhub.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.resolver.ResolvedAddressTypes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * HTTP-клиент OpenRouter: собственный пул соединений Reactor Netty с лимитами,
+ * вытеснением простаивающих соединений, таймаутами транспорта и метриками
+ * (reactor.netty.connection.provider.* с тегом name=openrouter, reactor.netty.http.client.*).
+ * Бины объявлены с defaultCandidate = false и внедряются только по квалификатору.
+ */
+@Configuration
+@EnableConfigurationProperties(OpenRouterModelProperties.class)
+public class OpenRouterConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenRouterConfig.class);
+
+    private static final String POOL_NAME = "openrouter";
+
+    @Value("${openrouter.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${openrouter.http.pending-acquire-max-count:200}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${openrouter.http.pending-acquire-timeout:5s}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${openrouter.http.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${openrouter.http.max-life-time:5m}")
+    private Duration maxLifeTime;
+
+    @Value("${openrouter.http.evict-interval:30s}")
+    private Duration evictInterval;
+
+    @Value("${openrouter.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${openrouter.http.response-timeout:60s}")
+    private Duration responseTimeout;
+
+    @Value("${openrouter.http.http2:true}")
+    private boolean http2;
+
+    @Value("${openrouter.http.prefer-ipv4:true}")
+    private boolean preferIpv4;
+
+    /**
+     * Пул соединений к OpenRouter, отдельный от пула Reactor Netty по умолчанию
+     */
+    @Bean(destroyMethod = "dispose", defaultCandidate = false)
+    @Qualifier("openRouter")
+    public ConnectionProvider openRouterConnectionProvider() {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                // Закрываем соединение раньше, чем его молча оборвет балансировщик на стороне OpenRouter
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInterval)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean(defaultCandidate = false)
+    @Qualifier("openRouter")
+    public WebClient openRouterWebClient(WebClient.Builder webClientBuilder,
+                                         @Qualifier("openRouter") ConnectionProvider openRouterConnectionProvider,
+                                         @Value("${openrouter.api.key}") String apiKey,
+                                         @Value("${openrouter.api.base-url:https://openrouter.ai/api/v1}") String baseUrl) {
+        HttpClient httpClient = HttpClient.create(openRouterConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                // Максимальная пауза между чтениями ответа; общий таймаут генерации задает OpenRouterClient
+                .responseTimeout(responseTimeout)
+                // URI клиента фиксированы (/chat/completions, /key), кардинальность тега ограничена
+                .metrics(true, Function.identity());
+
+        // HTTP/2 согласуется через ALPN, поэтому только для https; при отказе сервера остается HTTP/1.1
+        if (http2 && baseUrl.startsWith("https://")) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+        // Предпочтение IPv4 только для этого клиента, без System.setProperty на всю JVM
+        if (preferIpv4) {
+            httpClient = httpClient.resolver(spec -> spec.resolvedAddressTypes(ResolvedAddressTypes.IPV4_PREFERRED));
+        }
+
+        logger.info("OpenRouter HTTP client configured: max connections {}, pending acquire limit {}, "
+                        + "max idle {}, HTTP/2 {}", maxConnections, pendingAcquireMaxCount, maxIdleTime,
+                http2 && baseUrl.startsWith("https://") ? "enabled" : "disabled");
+
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .baseUrl(baseUrl)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader("HTTP-Referer", "https://taskhub.dev")
+                .defaultHeader("X-Title", "TaskHub AI Integration")
+                .codecs(configurer -> configurer
+                        .defaultCodecs()
+                        .maxInMemorySize(1024 * 1024)) // 1MB buffer
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package dev.ruslan.taskhub.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Список моделей OpenRouter (openrouter.models).
+ * YAML-список раскладывается в openrouter.models[0], [1], ..., которые @Value не видит,
+ * поэтому список привязывается через @ConfigurationProperties.
+ */
+@ConfigurationProperties("openrouter")
+public class OpenRouterModelProperties {
+
+    /**
+     * Модели в порядке предпочтения
+     */
+    private List<String> models = new ArrayList<>(List.of("mistralai/mistral-7b-instruct:free"));
+
+    // Геттеры и сеттеры
+    public List<String> getModels() {
+        return models;
+    }
+
+    public void setModels(List<String> models) {
+        this.models = models;
+    }
+}
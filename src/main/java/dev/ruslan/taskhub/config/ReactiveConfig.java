@@ -0,0 +1,116 @@
+package dev.ruslan.taskhub.config;
+
+import dev.ruslan.taskhub.cache.TaskDtoRedisSerializer;
+import dev.ruslan.taskhub.model.dto.TaskDto;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import java.time.Duration;
+
+/**
+ * Конфигурация реактивного профиля (spring.main.web-application-type=reactive):
+ * WebFlux на Netty, R2DBC для задач и реактивный клиент Redis.
+ * <p>
+ * Автоконфигурация R2DBC отключена в {@link dev.ruslan.taskhub.TaskHubApplication}:
+ * ее R2dbcTransactionManager вытеснил бы JpaTransactionManager, на котором работают
+ * outbox relay и остальные сервисы. Поэтому реактивный менеджер транзакций не публикуется
+ * бином, а используется только через {@link TransactionalOperator}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableR2dbcRepositories(basePackages = "dev.ruslan.taskhub.repository.reactive")
+public class ReactiveConfig extends AbstractR2dbcConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveConfig.class);
+
+    @Value("${spring.r2dbc.url}")
+    private String r2dbcUrl;
+
+    @Value("${spring.r2dbc.username:}")
+    private String r2dbcUsername;
+
+    @Value("${spring.r2dbc.password:}")
+    private String r2dbcPassword;
+
+    @Value("${spring.r2dbc.pool.initial-size:4}")
+    private int poolInitialSize;
+
+    @Value("${spring.r2dbc.pool.max-size:20}")
+    private int poolMaxSize;
+
+    @Value("${spring.r2dbc.pool.max-idle-time:30m}")
+    private Duration poolMaxIdleTime;
+
+    /**
+     * Пул R2DBC-соединений к Postgres
+     */
+    @Override
+    @Bean(destroyMethod = "dispose")
+    public ConnectionFactory connectionFactory() {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(r2dbcUrl).mutate();
+        if (!r2dbcUsername.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, r2dbcUsername);
+        }
+        if (!r2dbcPassword.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, r2dbcPassword);
+        }
+        ConnectionPoolConfiguration poolConfiguration = ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options.build()))
+                .name("r2dbc-tasks")
+                .initialSize(poolInitialSize)
+                .maxSize(poolMaxSize)
+                .maxIdleTime(poolMaxIdleTime)
+                .build();
+
+        logger.info("R2DBC connection pool configured: initial size {}, max size {}", poolInitialSize, poolMaxSize);
+        return new ConnectionPool(poolConfiguration);
+    }
+
+    /**
+     * Реактивные транзакции поверх R2DBC
+     */
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    /**
+     * Реактивный доступ к кешу "task" в Redis в том же бинарном формате, что и у RedisCacheManager
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, TaskDto> reactiveTaskRedisTemplate(
+            ReactiveRedisConnectionFactory redisConnectionFactory) {
+        RedisSerializationContext<String, TaskDto> serializationContext = RedisSerializationContext
+                .<String, TaskDto>newSerializationContext(new StringRedisSerializer())
+                .value(new TaskDtoRedisSerializer())
+                .build();
+        return new ReactiveRedisTemplate<>(redisConnectionFactory, serializationContext);
+    }
+
+    /**
+     * Netty вместо Tomcat: при наличии spring-boot-starter-web Boot выбрал бы Tomcat
+     * и для реактивного приложения
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
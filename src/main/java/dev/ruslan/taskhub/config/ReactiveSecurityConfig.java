@@ -0,0 +1,55 @@
+package dev.ruslan.taskhub.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Те же правила доступа, что и в {@link SecurityConfig}, для реактивного профиля
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        http
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .cors(cors -> {})
+            // Без сессий, как STATELESS в servlet-конфигурации
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .authorizeExchange(exchanges -> exchanges
+                // API эндпоинты
+                .pathMatchers("/api/v1/tasks/**").permitAll()
+                .pathMatchers("/api/tasks/**").permitAll()
+                .pathMatchers("/api/analytics/**").permitAll()
+                .pathMatchers("/api/task-generation/**").permitAll()
+                // Мониторинг; изменение настроек через actuator (aiadmission) - только с localhost
+                .pathMatchers(HttpMethod.POST, "/actuator/**").access(ReactiveSecurityConfig::fromLocalhost)
+                .pathMatchers("/actuator/**").permitAll()
+                // OPTIONS запросы для CORS
+                .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                .anyExchange().authenticated()
+            );
+
+        return http.build();
+    }
+
+    private static Mono<AuthorizationDecision> fromLocalhost(Mono<?> authentication, AuthorizationContext context) {
+        InetSocketAddress remoteAddress = context.getExchange().getRequest().getRemoteAddress();
+        boolean local = remoteAddress != null && remoteAddress.getAddress() != null
+            && remoteAddress.getAddress().isLoopbackAddress();
+        return Mono.just(new AuthorizationDecision(local));
+    }
+}
@@ -1,16 +1,20 @@
 package dev.ruslan.taskhub.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.expression.WebExpressionAuthorizationManager;
 import org.springframework.web.cors.CorsConfigurationSource;
 
 @Configuration
 @EnableWebSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfig {
 
     private final CorsConfigurationSource corsConfigurationSource;
@@ -35,7 +39,9 @@ public class SecurityConfig {
                 // Документация
                 .requestMatchers("/swagger-ui/**", "/api-docs/**", "/swagger-ui.html").permitAll()
                 .requestMatchers("/v3/api-docs/**").permitAll()
-                // Мониторинг
+                // Мониторинг; изменение настроек через actuator (aiadmission) - только с localhost
+                .requestMatchers(HttpMethod.POST, "/actuator/**")
+                    .access(new WebExpressionAuthorizationManager("hasIpAddress('127.0.0.1') or hasIpAddress('::1')"))
                 .requestMatchers("/actuator/**").permitAll()
                 // Статические ресурсы
                 .requestMatchers("/", "/index.html", "/static/**", "/favicon.ico").permitAll()
@@ -0,0 +1,20 @@
+package dev.ruslan.taskhub.exception;
+
+import java.time.Duration;
+
+/**
+ * Клиент исчерпал лимит AI-генераций
+ */
+public class AiRateLimitException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public AiRateLimitException(Duration retryAfter) {
+        super("AI generation rate limit exceeded");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,21 @@
+package dev.ruslan.taskhub.exception;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Задачи из пакетного запроса не найдены
+ */
+public class TaskNotFoundException extends RuntimeException {
+
+    private final List<Long> ids;
+
+    public TaskNotFoundException(Collection<Long> ids) {
+        super("Tasks not found: " + ids);
+        this.ids = List.copyOf(ids);
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+}
@@ -0,0 +1,68 @@
+package dev.ruslan.taskhub.imports;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Построчное чтение с ограничением длины строки. В отличие от BufferedReader.readLine
+ * слишком длинная строка не накапливается в памяти: ее остаток пропускается до перевода строки.
+ */
+class BoundedLineReader {
+
+    private final Reader reader;
+    private final int maxLineLength;
+    private final StringBuilder buffer = new StringBuilder();
+    private long line;
+    private boolean tooLong;
+
+    /**
+     * @param reader буферизованный источник, читается посимвольно
+     */
+    BoundedLineReader(Reader reader, int maxLineLength) {
+        this.reader = reader;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Номер последней прочитанной строки
+     */
+    long getLine() {
+        return line;
+    }
+
+    /**
+     * Последняя прочитанная строка длиннее лимита; {@link #next()} вернул ее пустой
+     */
+    boolean isTooLong() {
+        return tooLong;
+    }
+
+    /**
+     * Следующая строка без перевода строки или null в конце файла
+     */
+    String next() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        line++;
+        buffer.setLength(0);
+        tooLong = false;
+        while (c != -1 && c != '\n') {
+            if (tooLong) {
+                // Пропускаем остаток строки
+            } else if (buffer.length() == maxLineLength) {
+                tooLong = true;
+                buffer.setLength(0);
+            } else {
+                buffer.append((char) c);
+            }
+            c = reader.read();
+        }
+        int length = buffer.length();
+        if (length > 0 && buffer.charAt(length - 1) == '\r') {
+            buffer.setLength(length - 1);
+        }
+        return buffer.toString();
+    }
+}
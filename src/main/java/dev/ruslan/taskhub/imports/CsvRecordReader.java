@@ -0,0 +1,91 @@
+package dev.ruslan.taskhub.imports;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковое чтение CSV по RFC 4180: поля в кавычках могут содержать запятые,
+ * удвоенные кавычки и переводы строк. В памяти держится только текущая запись,
+ * ее длина ограничена, чтобы незакрытая кавычка не поглотила весь файл.
+ */
+class CsvRecordReader {
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private long line = 1;
+    private long recordLine;
+
+    /**
+     * @param reader буферизованный источник, читается посимвольно
+     */
+    CsvRecordReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Номер строки файла, с которой началась последняя прочитанная запись
+     */
+    long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Следующая запись или null в конце файла
+     *
+     * @throws IOException при ошибке чтения или нарушении формата, после которого продолжить нельзя
+     */
+    List<String> next() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        while (true) {
+            if (c == -1) {
+                if (quoted) {
+                    throw new IOException("Line " + recordLine + ": unterminated quoted field");
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (++length > maxRecordLength) {
+                throw new IOException("Line " + recordLine + ": record exceeds " + maxRecordLength + " characters");
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                    field.append('"');
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package dev.ruslan.taskhub.imports;
+
+import dev.ruslan.taskhub.model.dto.TaskFileFormat;
+import dev.ruslan.taskhub.model.dto.TaskImportDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Ход одной загрузки задач. Пишет только поток загрузки, читать можно из любого потока.
+ */
+public class TaskImport {
+
+    public enum Status {
+        RUNNING, DONE, FAILED
+    }
+
+    private final UUID id;
+    private final TaskFileFormat format;
+    private final int maxErrors;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final List<TaskImportDto.RowError> errors = new CopyOnWriteArrayList<>();
+
+    private volatile Status status = Status.RUNNING;
+    private volatile long rowsRead;
+    private volatile long imported;
+    private volatile long rejected;
+    private volatile String message;
+    private volatile LocalDateTime finishedAt;
+
+    TaskImport(UUID id, TaskFileFormat format, int maxErrors) {
+        this.id = id;
+        this.format = format;
+        this.maxErrors = maxErrors;
+    }
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    void imported(int count) {
+        imported += count;
+    }
+
+    /**
+     * Отклоненная строка. Подробности сохраняются только для первых maxErrors строк
+     */
+    void rejected(long line, String error) {
+        rejected++;
+        if (errors.size() < maxErrors) {
+            errors.add(new TaskImportDto.RowError(line, error));
+        }
+    }
+
+    void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.DONE;
+    }
+
+    void fail(String message) {
+        this.message = message;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    boolean isFinishedBefore(LocalDateTime time) {
+        LocalDateTime finished = finishedAt;
+        return finished != null && finished.isBefore(time);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public TaskFileFormat getFormat() {
+        return format;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<TaskImportDto.RowError> getErrors() {
+        return List.copyOf(errors);
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+}
@@ -0,0 +1,319 @@
+package dev.ruslan.taskhub.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import dev.ruslan.taskhub.cache.TaskCollectionVersion;
+import dev.ruslan.taskhub.model.dto.TaskDto;
+import dev.ruslan.taskhub.model.dto.TaskFileFormat;
+import dev.ruslan.taskhub.model.dto.TaskImportDto;
+import dev.ruslan.taskhub.model.entity.TaskStatus;
+import dev.ruslan.taskhub.repository.TaskCopyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Загрузка задач из потока NDJSON или CSV.
+ * <p>
+ * Строки разбираются и проверяются по мере чтения, корректные копятся в пакет
+ * и записываются через COPY в отдельной транзакции на пакет, вместе с событиями outbox.
+ * Некорректные строки пропускаются и попадают в отчет. В памяти держится не больше
+ * одного пакета, поэтому размер файла не ограничен. Если загрузка прервалась,
+ * уже записанные пакеты остаются в базе.
+ * <p>
+ * Ход загрузок хранится в памяти узла, который их выполняет, и удаляется через {@code retention}.
+ */
+@Service
+public class TaskImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskImportService.class);
+
+    private final TaskCopyRepository taskCopyRepository;
+    private final TaskCollectionVersion collectionVersion;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectReader taskReader;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final int maxRecordLength;
+    private final Duration retention;
+
+    private final Map<UUID, TaskImport> imports = new ConcurrentHashMap<>();
+
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    public TaskImportService(TaskCopyRepository taskCopyRepository,
+                             TaskCollectionVersion collectionVersion,
+                             PlatformTransactionManager transactionManager,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${tasks.import.chunk-size:5000}") int chunkSize,
+                             @Value("${tasks.import.max-errors:100}") int maxErrors,
+                             @Value("${tasks.import.max-record-length:65536}") int maxRecordLength,
+                             @Value("${tasks.import.retention:1h}") Duration retention) {
+        this.taskCopyRepository = taskCopyRepository;
+        this.collectionVersion = collectionVersion;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        // Выгрузки других трекеров могут содержать лишние поля
+        this.taskReader = objectMapper.readerFor(TaskDto.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.maxRecordLength = maxRecordLength;
+        this.retention = retention;
+        this.importedRows = Counter.builder("taskhub.tasks.import.rows")
+            .description("Строки загрузки задач")
+            .tag("outcome", "imported")
+            .register(meterRegistry);
+        this.rejectedRows = Counter.builder("taskhub.tasks.import.rows")
+            .description("Строки загрузки задач")
+            .tag("outcome", "rejected")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Загружает задачи из потока в вызывающем потоке.
+     * Загрузка регистрируется до чтения потока, поэтому ход загрузки с id, выбранным клиентом,
+     * можно запрашивать, пока тело еще передается.
+     *
+     * @param importId id загрузки от клиента или null, тогда он генерируется
+     * @return итог загрузки
+     * @throws IllegalArgumentException если загрузка с таким id уже есть на этом узле
+     */
+    public TaskImportDto importTasks(TaskFileFormat format, InputStream in, UUID importId) {
+        removeExpired();
+        TaskImport taskImport = new TaskImport(importId != null ? importId : UUID.randomUUID(), format, maxErrors);
+        if (imports.putIfAbsent(taskImport.getId(), taskImport) != null) {
+            throw new IllegalArgumentException("Import " + taskImport.getId() + " already exists");
+        }
+        logger.info("Task import {} started, format {}", taskImport.getId(), format);
+
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            RowSource rows = format == TaskFileFormat.CSV ? new CsvRowSource(reader) : new NdjsonRowSource(reader);
+            List<TaskDto> chunk = new ArrayList<>(chunkSize);
+            Row row;
+            while ((row = rows.next()) != null) {
+                taskImport.rowRead();
+                String error = row.error() != null ? row.error() : validate(row.task());
+                if (error != null) {
+                    taskImport.rejected(row.line(), error);
+                    rejectedRows.increment();
+                    continue;
+                }
+                chunk.add(row.task());
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(taskImport, chunk);
+                }
+            }
+            writeChunk(taskImport, chunk);
+            taskImport.complete();
+            logger.info("Task import {} finished: {} imported, {} rejected",
+                taskImport.getId(), taskImport.getImported(), taskImport.getRejected());
+        } catch (IOException | RuntimeException e) {
+            taskImport.fail(e.getMessage());
+            logger.error("Task import {} failed after {} imported rows: {}",
+                taskImport.getId(), taskImport.getImported(), e.getMessage());
+        }
+        return TaskImportDto.from(taskImport);
+    }
+
+    public Optional<TaskImportDto> getImport(UUID id) {
+        return Optional.ofNullable(imports.get(id)).map(TaskImportDto::from);
+    }
+
+    /**
+     * Текущие и недавние загрузки этого узла, сначала новые
+     */
+    public List<TaskImportDto> getImports() {
+        removeExpired();
+        return imports.values().stream()
+            .sorted(Comparator.comparing(TaskImport::getStartedAt).reversed())
+            .map(TaskImportDto::from)
+            .toList();
+    }
+
+    private void writeChunk(TaskImport taskImport, List<TaskDto> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            taskCopyRepository.copyTasks(chunk);
+            collectionVersion.bumpAfterCommit();
+        });
+        taskImport.imported(chunk.size());
+        importedRows.increment(chunk.size());
+        logger.debug("Task import {}: copied {} rows, {} in total",
+            taskImport.getId(), chunk.size(), taskImport.getImported());
+        chunk.clear();
+    }
+
+    private String validate(TaskDto task) {
+        Set<ConstraintViolation<TaskDto>> violations = validator.validate(task);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        ConstraintViolation<TaskDto> violation = violations.iterator().next();
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+
+    private void removeExpired() {
+        LocalDateTime threshold = LocalDateTime.now().minus(retention);
+        imports.values().removeIf(taskImport -> taskImport.isFinishedBefore(threshold));
+    }
+
+    /**
+     * Строка файла: задача или причина, по которой ее не удалось разобрать
+     */
+    private record Row(long line, TaskDto task, String error) {}
+
+    private interface RowSource {
+
+        /**
+         * Следующая строка с данными или null в конце файла
+         */
+        Row next() throws IOException;
+    }
+
+    /**
+     * По объекту JSON на строку, id и updatedAt игнорируются
+     */
+    private class NdjsonRowSource implements RowSource {
+
+        private final BoundedLineReader reader;
+
+        NdjsonRowSource(BufferedReader reader) {
+            this.reader = new BoundedLineReader(reader, maxRecordLength);
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String text;
+            while ((text = reader.next()) != null) {
+                long line = reader.getLine();
+                if (reader.isTooLong()) {
+                    return new Row(line, null, "Line exceeds " + maxRecordLength + " characters");
+                }
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    TaskDto task = taskReader.readValue(text);
+                    task.setId(null);
+                    task.setUpdatedAt(null);
+                    return new Row(line, task, null);
+                } catch (JsonProcessingException e) {
+                    return new Row(line, null, "Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * CSV с заголовком, как в выгрузке: используются столбцы title (обязательный),
+     * description, status и createdAt, остальные игнорируются
+     */
+    private class CsvRowSource implements RowSource {
+
+        private final CsvRecordReader reader;
+        private Map<String, Integer> columns;
+
+        CsvRowSource(BufferedReader reader) {
+            this.reader = new CsvRecordReader(reader, maxRecordLength);
+        }
+
+        @Override
+        public Row next() throws IOException {
+            if (columns == null) {
+                columns = readHeader();
+            }
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                return toRow(reader.getRecordLine(), record);
+            }
+            return null;
+        }
+
+        private Map<String, Integer> readHeader() throws IOException {
+            List<String> header = reader.next();
+            if (header == null) {
+                throw new IOException("CSV header is missing");
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("title")) {
+                throw new IOException("CSV header must contain a 'title' column");
+            }
+            return columns;
+        }
+
+        private Row toRow(long line, List<String> record) {
+            TaskDto task = new TaskDto(field(record, "title"), field(record, "description"));
+            String status = field(record, "status");
+            if (status != null) {
+                try {
+                    task.setStatus(TaskStatus.valueOf(status.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    return new Row(line, null, "Invalid status '" + status + "'");
+                }
+            }
+            String createdAt = field(record, "createdat");
+            if (createdAt != null) {
+                try {
+                    task.setCreatedAt(LocalDateTime.parse(createdAt.trim()));
+                } catch (DateTimeParseException e) {
+                    return new Row(line, null, "Invalid createdAt '" + createdAt + "'");
+                }
+            }
+            return new Row(line, task, null);
+        }
+
+        /**
+         * Значение столбца или null, если столбца нет или поле пустое
+         */
+        private String field(List<String> record, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+                return null;
+            }
+            return record.get(index);
+        }
+    }
+}
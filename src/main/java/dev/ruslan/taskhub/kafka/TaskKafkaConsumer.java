@@ -1,106 +1,83 @@
 package dev.ruslan.taskhub.kafka;
 
-import dev.ruslan.taskhub.analytics.ClickHouseService;
+import dev.ruslan.taskhub.analytics.TaskEventBatchWriter;
 import dev.ruslan.taskhub.model.dto.events.TaskEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Objects;
+
 /**
- * Kafka Consumer для обработки событий задач
+ * Kafka Consumer для обработки событий задач.
+ * Listener'ы работают в пакетном режиме: получают весь poll списком
+ * и подтверждают offset'ы один раз на пакет.
+ * Пока запись в ClickHouse не успевает, контейнеры listener'ов стоят на паузе.
  */
 @Service
 public class TaskKafkaConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskKafkaConsumer.class);
+
+    static final String TASK_CREATED_LISTENER = "task-created-listener";
+    static final String TASK_UPDATED_LISTENER = "task-updated-listener";
+    private static final List<String> LISTENER_IDS = List.of(TASK_CREATED_LISTENER, TASK_UPDATED_LISTENER);
     
-    private final ClickHouseService clickHouseService;
+    private final TaskEventBatchWriter taskEventBatchWriter;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
 
-    public TaskKafkaConsumer(ClickHouseService clickHouseService) {
-        this.clickHouseService = clickHouseService;
+    public TaskKafkaConsumer(TaskEventBatchWriter taskEventBatchWriter,
+                             KafkaListenerEndpointRegistry listenerRegistry) {
+        this.taskEventBatchWriter = taskEventBatchWriter;
+        this.listenerRegistry = listenerRegistry;
+        taskEventBatchWriter.setBackpressureHandlers(this::pauseListeners, this::resumeListeners);
     }
 
     /**
-     * Обрабатывает события создания задач
+     * Обрабатывает пакет событий создания задач
      */
-    @KafkaListener(topics = TaskKafkaProducer.TASK_CREATED_TOPIC, groupId = "taskhub-group")
-    public void handleTaskCreatedEvent(
-            @Payload TaskEvent taskEvent,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            Acknowledgment acknowledgment) {
-        
-        try {
-            logger.info("Received TASK_CREATED event from topic: {}, partition: {}, offset: {}, event: {}", 
-                topic, partition, offset, taskEvent);
-            
-            // Здесь может быть бизнес-логика обработки создания задачи
-            // Например, отправка уведомлений, обновление других микросервисов и т.д.
-            processTaskCreated(taskEvent);
-            
-            // Подтверждаем успешную обработку
-            acknowledgment.acknowledge();
-            logger.debug("Successfully processed TASK_CREATED event for task ID: {}", taskEvent.getId());
-            
-        } catch (Exception e) {
-            logger.error("Error processing TASK_CREATED event for task ID: {}: {}", 
-                taskEvent.getId(), e.getMessage(), e);
-            // Здесь можно добавить логику повторной обработки или отправки в DLQ
-        }
+    @KafkaListener(id = TASK_CREATED_LISTENER, topics = TaskKafkaProducer.TASK_CREATED_TOPIC, groupId = "taskhub-group")
+    public void handleTaskCreatedEvents(List<ConsumerRecord<String, TaskEvent>> records,
+                                        Acknowledgment acknowledgment) throws InterruptedException {
+        logReceived("TASK_CREATED", records);
+        List<TaskEvent> events = toEvents(records);
+        events.forEach(this::processTaskCreated);
+
+        // Весь пакет уходит в ClickHouse одним вызовом, offset'ы подтверждаются после его записи.
+        // При заполнении буфера writer ставит контейнеры на паузу (backpressure)
+        taskEventBatchWriter.enqueueAll(events, acknowledgment::acknowledge);
+        logger.debug("Queued {} TASK_CREATED events for ClickHouse", events.size());
     }
 
     /**
-     * Обрабатывает события обновления задач
+     * Обрабатывает пакет событий обновления задач
      */
-    @KafkaListener(topics = TaskKafkaProducer.TASK_UPDATED_TOPIC, groupId = "taskhub-group")
-    public void handleTaskUpdatedEvent(
-            @Payload TaskEvent taskEvent,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            Acknowledgment acknowledgment) {
-        
-        try {
-            logger.info("Received TASK_UPDATED event from topic: {}, partition: {}, offset: {}, event: {}", 
-                topic, partition, offset, taskEvent);
-            
-            // Здесь может быть бизнес-логика обработки обновления задачи
-            processTaskUpdated(taskEvent);
-            
-            // Подтверждаем успешную обработку
-            acknowledgment.acknowledge();
-            logger.debug("Successfully processed TASK_UPDATED event for task ID: {}", taskEvent.getId());
-            
-        } catch (Exception e) {
-            logger.error("Error processing TASK_UPDATED event for task ID: {}: {}", 
-                taskEvent.getId(), e.getMessage(), e);
-            // Здесь можно добавить логику повторной обработки или отправки в DLQ
-        }
+    @KafkaListener(id = TASK_UPDATED_LISTENER, topics = TaskKafkaProducer.TASK_UPDATED_TOPIC, groupId = "taskhub-group")
+    public void handleTaskUpdatedEvents(List<ConsumerRecord<String, TaskEvent>> records,
+                                        Acknowledgment acknowledgment) throws InterruptedException {
+        logReceived("TASK_UPDATED", records);
+        List<TaskEvent> events = toEvents(records);
+        events.forEach(this::processTaskUpdated);
+
+        // Весь пакет уходит в ClickHouse одним вызовом, offset'ы подтверждаются после его записи.
+        // При заполнении буфера writer ставит контейнеры на паузу (backpressure)
+        taskEventBatchWriter.enqueueAll(events, acknowledgment::acknowledge);
+        logger.debug("Queued {} TASK_UPDATED events for ClickHouse", events.size());
     }
 
     /**
      * Обрабатывает создание задачи
      */
     private void processTaskCreated(TaskEvent taskEvent) {
-        logger.info("Processing task creation: Task '{}' with ID {} has been created with status {}", 
+        logger.debug("Processing task creation: Task '{}' with ID {} has been created with status {}", 
             taskEvent.getTitle(), taskEvent.getId(), taskEvent.getStatus());
         
-        // Сохраняем событие в ClickHouse для аналитики
-        try {
-            clickHouseService.insertTaskEvent(taskEvent);
-            logger.debug("Successfully saved task creation event to ClickHouse for task ID: {}", taskEvent.getId());
-        } catch (Exception e) {
-            logger.error("Failed to save task creation event to ClickHouse for task ID: {}: {}", 
-                taskEvent.getId(), e.getMessage(), e);
-            // Не прерываем обработку, т.к. это не критично для основной функциональности
-        }
-        
         // Здесь может быть дополнительная бизнес-логика:
         // - Отправка уведомлений пользователям
         // - Обновление статистики
@@ -112,23 +89,56 @@ public class TaskKafkaConsumer {
      * Обрабатывает обновление задачи
      */
     private void processTaskUpdated(TaskEvent taskEvent) {
-        logger.info("Processing task update: Task '{}' with ID {} has been updated to status {}", 
+        logger.debug("Processing task update: Task '{}' with ID {} has been updated to status {}", 
             taskEvent.getTitle(), taskEvent.getId(), taskEvent.getStatus());
         
-        // Сохраняем событие в ClickHouse для аналитики
-        try {
-            clickHouseService.insertTaskEvent(taskEvent);
-            logger.debug("Successfully saved task update event to ClickHouse for task ID: {}", taskEvent.getId());
-        } catch (Exception e) {
-            logger.error("Failed to save task update event to ClickHouse for task ID: {}: {}", 
-                taskEvent.getId(), e.getMessage(), e);
-            // Не прерываем обработку, т.к. это не критично для основной функциональности
-        }
-        
         // Здесь может быть дополнительная бизнес-логика:
         // - Отправка уведомлений о изменениях
         // - Обновление кеша в других сервисах
         // - Аудит изменений
         // - Триггеры для автоматизации
     }
-}
\ No newline at end of file
+
+    /**
+     * Пауза применяется перед следующим poll: consumer продолжает опрашивать брокер
+     * (и коммитить подтвержденные offset'ы), но записи не получает
+     */
+    private void pauseListeners() {
+        LISTENER_IDS.forEach(id -> {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(id);
+            if (container != null) {
+                container.pause();
+            }
+        });
+    }
+
+    private void resumeListeners() {
+        LISTENER_IDS.forEach(id -> {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(id);
+            if (container != null) {
+                container.resume();
+            }
+        });
+    }
+
+    private void logReceived(String eventType, List<ConsumerRecord<String, TaskEvent>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        ConsumerRecord<String, TaskEvent> first = records.get(0);
+        ConsumerRecord<String, TaskEvent> last = records.get(records.size() - 1);
+        logger.info("Received {} {} events from topic: {}, offsets {}-{} {}-{}",
+            records.size(), eventType, first.topic(),
+            first.partition(), first.offset(), last.partition(), last.offset());
+    }
+
+    /**
+     * Tombstone-записи (без значения) пропускаем
+     */
+    private List<TaskEvent> toEvents(List<ConsumerRecord<String, TaskEvent>> records) {
+        return records.stream()
+            .map(ConsumerRecord::value)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+}
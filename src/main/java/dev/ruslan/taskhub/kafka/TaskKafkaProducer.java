@@ -11,7 +11,8 @@ import org.springframework.stereotype.Service;
 import java.util.concurrent.CompletableFuture;
 
 /**
- * Kafka Producer для отправки событий задач
+ * Kafka Producer для отправки событий задач.
+ * Сервисы не вызывают его напрямую: события пишутся в outbox и отправляются {@link TaskOutboxRelay}.
  */
 @Service
 public class TaskKafkaProducer {
@@ -30,41 +31,26 @@ public class TaskKafkaProducer {
     }
 
     /**
-     * Отправляет событие создания задачи
+     * Отправляет событие в топик с ключом по ID задачи, чтобы события одной задачи
+     * попадали в одну партицию в порядке отправки
+     *
+     * @return результат отправки, завершается после подтверждения брокером
      */
-    public void sendTaskCreatedEvent(TaskEvent taskEvent) {
-        sendEvent(TASK_CREATED_TOPIC, taskEvent);
-    }
+    public CompletableFuture<SendResult<String, TaskEvent>> send(String topic, TaskEvent taskEvent) {
+        logger.debug("Sending event to topic {}: {}", topic, taskEvent);
 
-    /**
-     * Отправляет событие обновления задачи
-     */
-    public void sendTaskUpdatedEvent(TaskEvent taskEvent) {
-        sendEvent(TASK_UPDATED_TOPIC, taskEvent);
-    }
+        CompletableFuture<SendResult<String, TaskEvent>> future =
+            kafkaTemplate.send(topic, taskEvent.getId().toString(), taskEvent);
 
-    /**
-     * Общий метод для отправки событий в Kafka
-     */
-    private void sendEvent(String topic, TaskEvent taskEvent) {
-        try {
-            logger.info("Sending event to topic {}: {}", topic, taskEvent);
-            
-            CompletableFuture<SendResult<String, TaskEvent>> future = 
-                kafkaTemplate.send(topic, taskEvent.getId().toString(), taskEvent);
-            
-            future.thenAccept(result -> {
-                logger.info("Successfully sent event to topic {} with key {}: offset={}",
+        future.whenComplete((result, ex) -> {
+            if (ex == null) {
+                logger.debug("Successfully sent event to topic {} with key {}: offset={}",
                     topic, taskEvent.getId(), result.getRecordMetadata().offset());
-            }).exceptionally(ex -> {
+            } else {
                 logger.error("Failed to send event to topic {} with key {}: {}", 
-                    topic, taskEvent.getId(), ex.getMessage(), ex);
-                return null;
-            });
-            
-        } catch (Exception e) {
-            logger.error("Error while sending event to topic {} with key {}: {}", 
-                topic, taskEvent.getId(), e.getMessage(), e);
-        }
+                    topic, taskEvent.getId(), ex.getMessage());
+            }
+        });
+        return future;
     }
-}
\ No newline at end of file
+}
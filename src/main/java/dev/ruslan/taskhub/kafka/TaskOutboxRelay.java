@@ -0,0 +1,161 @@
+package dev.ruslan.taskhub.kafka;
+
+import dev.ruslan.taskhub.model.dto.events.TaskEvent;
+import dev.ruslan.taskhub.model.entity.TaskOutboxEvent;
+import dev.ruslan.taskhub.repository.TaskOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Relay transactional outbox: пачками вычитывает task_outbox и отправляет события в Kafka.
+ * <p>
+ * События отправляются в порядке id с ключом taskId, поэтому события одной задачи
+ * попадают в одну партицию в порядке записи. Строки удаляются только до первой
+ * неудачной отправки, остальные будут отправлены на следующем проходе (at-least-once).
+ * Одновременно работает один relay на кластер - это обеспечивает сессионная advisory-блокировка
+ * на отдельном соединении. Транзакции короткие (чтение пачки и удаление отправленных),
+ * ожидание подтверждений Kafka происходит вне транзакции.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskOutboxRelay.class);
+
+    /**
+     * Ключ advisory-блокировки relay в Postgres
+     */
+    private static final long RELAY_LOCK_KEY = 0x7461736b6f7574L;
+
+    private final TaskOutboxRepository outboxRepository;
+    private final TaskKafkaProducer taskKafkaProducer;
+    private final DataSource dataSource;
+    private final int batchSize;
+    private final Duration sendTimeout;
+
+    private final Counter relayedEvents;
+    private final Counter failedEvents;
+
+    public TaskOutboxRelay(TaskOutboxRepository outboxRepository,
+                           TaskKafkaProducer taskKafkaProducer,
+                           DataSource dataSource,
+                           MeterRegistry meterRegistry,
+                           @Value("${outbox.relay.batch-size:500}") int batchSize,
+                           @Value("${outbox.relay.send-timeout:10s}") Duration sendTimeout) {
+        this.outboxRepository = outboxRepository;
+        this.taskKafkaProducer = taskKafkaProducer;
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.relayedEvents = Counter.builder("taskhub.outbox.relayed")
+                .description("События outbox, отправленные в Kafka")
+                .register(meterRegistry);
+        this.failedEvents = Counter.builder("taskhub.outbox.failures")
+                .description("Неудачные отправки событий outbox")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Опрашивает outbox и отправляет пачки, пока они приходят полными.
+     * Блокировка держится на всем проходе, поэтому пачки не пересекаются между узлами.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval:500ms}")
+    public void relay() {
+        try (Connection lockConnection = dataSource.getConnection()) {
+            if (!callAdvisoryLock(lockConnection, "SELECT pg_try_advisory_lock(?)")) {
+                return;
+            }
+            try {
+                int relayed;
+                do {
+                    relayed = relayBatch();
+                } while (relayed == batchSize);
+            } finally {
+                // Соединение вернется в пул, блокировку сессии нужно снять явно
+                callAdvisoryLock(lockConnection, "SELECT pg_advisory_unlock(?)");
+            }
+        } catch (SQLException e) {
+            logger.warn("Outbox relay lock failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private boolean callAdvisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, RELAY_LOCK_KEY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    /**
+     * Отправляет одну пачку; чтение и удаление выполняются каждое в своей короткой транзакции
+     *
+     * @return количество отправленных и удаленных из outbox событий
+     */
+    private int relayBatch() {
+        List<TaskOutboxEvent> batch = outboxRepository.findAllByOrderByIdAsc(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Отправляем всю пачку сразу, producer сам группирует записи по партициям
+        List<CompletableFuture<SendResult<String, TaskEvent>>> sends = new ArrayList<>(batch.size());
+        for (TaskOutboxEvent outboxEvent : batch) {
+            sends.add(taskKafkaProducer.send(outboxEvent.getEventType(), outboxEvent.toTaskEvent()));
+        }
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (!awaitSend(sends.get(i), batch.get(i), deadline)) {
+                failedEvents.increment(batch.size() - i);
+                break;
+            }
+            sentIds.add(batch.get(i).getId());
+        }
+
+        if (!sentIds.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(sentIds);
+        }
+        relayedEvents.increment(sentIds.size());
+        logger.debug("Relayed {} of {} outbox events to Kafka", sentIds.size(), batch.size());
+        return sentIds.size();
+    }
+
+    private boolean awaitSend(CompletableFuture<SendResult<String, TaskEvent>> send,
+                              TaskOutboxEvent outboxEvent, long deadline) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("Failed to relay outbox event {} for task {} to {}, will retry: {}",
+                    outboxEvent.getId(), outboxEvent.getTaskId(), outboxEvent.getEventType(), e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package dev.ruslan.taskhub.mapper;
 import dev.ruslan.taskhub.model.dto.TaskCreateDto;
 import dev.ruslan.taskhub.model.dto.TaskDto;
 import dev.ruslan.taskhub.model.entity.Task;
+import dev.ruslan.taskhub.model.entity.TaskRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -40,4 +41,18 @@ public interface TaskMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     void updateEntityFromCreateDto(TaskCreateDto taskCreateDto, @MappingTarget Task task);
-}
\ No newline at end of file
+
+    // Реактивный профиль (R2DBC)
+    TaskDto toDto(TaskRow taskRow);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    TaskRow toRow(TaskCreateDto taskCreateDto);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    void updateRowFromDto(TaskDto taskDto, @MappingTarget TaskRow taskRow);
+}
@@ -0,0 +1,50 @@
+package dev.ruslan.taskhub.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Запрос на пакетную генерацию задач с помощью AI")
+public class BatchGenerationRequest {
+
+    @NotEmpty(message = "Topics cannot be empty")
+    @Size(max = 100, message = "Batch cannot exceed 100 topics")
+    @Schema(
+        description = "Темы задач для генерации",
+        example = "[\"Kafka Consumer на Java\", \"Миграция схемы через Liquibase\"]",
+        requiredMode = Schema.RequiredMode.REQUIRED
+    )
+    private List<@NotBlank(message = "Topic cannot be blank")
+                 @Size(max = 255, message = "Topic cannot exceed 255 characters") String> topics;
+
+    @Schema(description = "Создать задачи из успешно сгенерированных результатов", example = "false")
+    private boolean createTasks;
+
+    // Конструкторы
+    public BatchGenerationRequest() {}
+
+    public BatchGenerationRequest(List<String> topics, boolean createTasks) {
+        this.topics = topics;
+        this.createTasks = createTasks;
+    }
+
+    // Геттеры и сеттеры
+    public List<String> getTopics() {
+        return topics;
+    }
+
+    public void setTopics(List<String> topics) {
+        this.topics = topics;
+    }
+
+    public boolean isCreateTasks() {
+        return createTasks;
+    }
+
+    public void setCreateTasks(boolean createTasks) {
+        this.createTasks = createTasks;
+    }
+}
@@ -0,0 +1,108 @@
+package dev.ruslan.taskhub.model.dto;
+
+import dev.ruslan.taskhub.model.entity.GenerationJobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Результат генерации по одной теме пакета")
+public class BatchGenerationResult {
+
+    @Schema(description = "Позиция темы в запросе", example = "0")
+    private int index;
+
+    @Schema(description = "Тема задачи", example = "Kafka Consumer на Java")
+    private String topic;
+
+    @Schema(description = "DONE или FAILED", example = "DONE")
+    private GenerationJobStatus status;
+
+    @Schema(description = "Сгенерированное содержимое задачи, если статус DONE")
+    private String content;
+
+    @Schema(description = "Причина ошибки, если статус FAILED")
+    private String error;
+
+    @Schema(description = "Результат взят из кеша генерации", example = "false")
+    private boolean cached;
+
+    @Schema(description = "ID созданной задачи, если запрошено создание задач", example = "42")
+    private Long taskId;
+
+    // Конструкторы
+    public BatchGenerationResult() {}
+
+    public static BatchGenerationResult done(int index, String topic, String content, boolean cached) {
+        BatchGenerationResult result = new BatchGenerationResult();
+        result.index = index;
+        result.topic = topic;
+        result.status = GenerationJobStatus.DONE;
+        result.content = content;
+        result.cached = cached;
+        return result;
+    }
+
+    public static BatchGenerationResult failed(int index, String topic, String error) {
+        BatchGenerationResult result = new BatchGenerationResult();
+        result.index = index;
+        result.topic = topic;
+        result.status = GenerationJobStatus.FAILED;
+        result.error = error;
+        return result;
+    }
+
+    // Геттеры и сеттеры
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public GenerationJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(GenerationJobStatus status) {
+        this.status = status;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+}
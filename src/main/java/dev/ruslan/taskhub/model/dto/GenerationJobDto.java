@@ -0,0 +1,126 @@
+package dev.ruslan.taskhub.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import dev.ruslan.taskhub.model.entity.GenerationJob;
+import dev.ruslan.taskhub.model.entity.GenerationJobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Schema(description = "Задание на AI-генерацию задачи")
+public class GenerationJobDto {
+
+    @Schema(description = "Идентификатор задания", example = "3f1c2a9e-6b7d-4e21-9a52-0c8d7f4b1e63")
+    private UUID id;
+
+    @Schema(description = "Тема, по которой генерируется задача", example = "Kafka Consumer на Java")
+    private String topic;
+
+    @Schema(description = "Статус задания", example = "PENDING")
+    private GenerationJobStatus status;
+
+    @Schema(description = "Сгенерированное содержимое задачи, если статус DONE")
+    private String content;
+
+    @Schema(description = "Причина ошибки, если статус FAILED")
+    private String error;
+
+    @Schema(description = "Дата создания задания")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Дата начала генерации")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "Дата завершения генерации")
+    private LocalDateTime finishedAt;
+
+    // Конструкторы
+    public GenerationJobDto() {}
+
+    public static GenerationJobDto from(GenerationJob job) {
+        GenerationJobDto dto = new GenerationJobDto();
+        dto.id = job.getId();
+        dto.topic = job.getTopic();
+        dto.status = job.getStatus();
+        dto.content = job.getContent();
+        dto.error = job.getError();
+        dto.createdAt = job.getCreatedAt();
+        dto.startedAt = job.getStartedAt();
+        dto.finishedAt = job.getFinishedAt();
+        return dto;
+    }
+
+    // Геттеры и сеттеры
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public GenerationJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(GenerationJobStatus status) {
+        this.status = status;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    /**
+     * Задание еще не завершено и его стоит опросить позже
+     */
+    @JsonIgnore
+    public boolean isInProgress() {
+        return status == GenerationJobStatus.PENDING || status == GenerationJobStatus.RUNNING;
+    }
+}
@@ -0,0 +1,146 @@
+package dev.ruslan.taskhub.model.dto;
+
+import dev.ruslan.taskhub.imports.TaskImport;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Ход загрузки задач из файла")
+public class TaskImportDto {
+
+    @Schema(description = "Идентификатор загрузки", example = "3f1c2a9e-6b7d-4e21-9a52-0c8d7f4b1e63")
+    private UUID id;
+
+    @Schema(description = "Формат файла", example = "CSV")
+    private TaskFileFormat format;
+
+    @Schema(description = "Статус загрузки", example = "RUNNING")
+    private TaskImport.Status status;
+
+    @Schema(description = "Прочитано строк с данными", example = "120000")
+    private long rowsRead;
+
+    @Schema(description = "Загружено задач", example = "119990")
+    private long imported;
+
+    @Schema(description = "Отклонено строк", example = "10")
+    private long rejected;
+
+    @Schema(description = "Ошибки первых отклоненных строк")
+    private List<RowError> errors;
+
+    @Schema(description = "Причина остановки, если статус FAILED. Уже загруженные пакеты остаются в базе")
+    private String message;
+
+    @Schema(description = "Дата начала загрузки")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "Дата завершения загрузки")
+    private LocalDateTime finishedAt;
+
+    /**
+     * Ошибка строки файла
+     */
+    public record RowError(long line, String error) {}
+
+    // Конструкторы
+    public TaskImportDto() {}
+
+    public static TaskImportDto from(TaskImport taskImport) {
+        TaskImportDto dto = new TaskImportDto();
+        dto.id = taskImport.getId();
+        dto.format = taskImport.getFormat();
+        dto.status = taskImport.getStatus();
+        dto.rowsRead = taskImport.getRowsRead();
+        dto.imported = taskImport.getImported();
+        dto.rejected = taskImport.getRejected();
+        dto.errors = taskImport.getErrors();
+        dto.message = taskImport.getMessage();
+        dto.startedAt = taskImport.getStartedAt();
+        dto.finishedAt = taskImport.getFinishedAt();
+        return dto;
+    }
+
+    // Геттеры и сеттеры
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public TaskFileFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(TaskFileFormat format) {
+        this.format = format;
+    }
+
+    public TaskImport.Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskImport.Status status) {
+        this.status = status;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
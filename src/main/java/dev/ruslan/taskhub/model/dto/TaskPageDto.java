@@ -0,0 +1,43 @@
+package dev.ruslan.taskhub.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Страница задач с курсором для получения следующей страницы")
+public class TaskPageDto {
+
+    @Schema(description = "Задачи текущей страницы")
+    private List<TaskDto> items;
+
+    @Schema(
+        description = "Непрозрачный курсор следующей страницы, null если страница последняя",
+        example = "MjAyNS0wMS0xNVQxMDozMDowMHw0Mg"
+    )
+    private String nextCursor;
+
+    // Конструкторы
+    public TaskPageDto() {}
+
+    public TaskPageDto(List<TaskDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Геттеры и сеттеры
+    public List<TaskDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TaskDto> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
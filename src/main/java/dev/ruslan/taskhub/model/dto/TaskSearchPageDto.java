@@ -0,0 +1,64 @@
+package dev.ruslan.taskhub.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Страница результатов поиска задач, сначала наиболее релевантные")
+public class TaskSearchPageDto {
+
+    @Schema(description = "Задачи текущей страницы")
+    private List<TaskDto> items;
+
+    @Schema(description = "Номер страницы, с нуля", example = "0")
+    private int page;
+
+    @Schema(description = "Размер страницы", example = "20")
+    private int size;
+
+    @Schema(description = "Есть ли следующая страница", example = "true")
+    private boolean hasNext;
+
+    // Конструкторы
+    public TaskSearchPageDto() {}
+
+    public TaskSearchPageDto(List<TaskDto> items, int page, int size, boolean hasNext) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+    }
+
+    // Геттеры и сеттеры
+    public List<TaskDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TaskDto> items) {
+        this.items = items;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
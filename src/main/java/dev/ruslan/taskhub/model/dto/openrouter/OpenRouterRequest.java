@@ -1,5 +1,6 @@
 package dev.ruslan.taskhub.model.dto.openrouter;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
@@ -18,6 +19,11 @@ public class OpenRouterRequest {
     @JsonProperty("temperature")
     private Double temperature;
 
+    // Потоковый режим: ответ приходит как Server-Sent Events с дельтами текста
+    @JsonProperty("stream")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean stream;
+
     // Конструкторы
     public OpenRouterRequest() {}
 
@@ -60,4 +66,12 @@ public class OpenRouterRequest {
     public void setTemperature(Double temperature) {
         this.temperature = temperature;
     }
-}
\ No newline at end of file
+
+    public Boolean getStream() {
+        return stream;
+    }
+
+    public void setStream(Boolean stream) {
+        this.stream = stream;
+    }
+}
@@ -0,0 +1,95 @@
+package dev.ruslan.taskhub.model.dto.openrouter;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Фрагмент потокового ответа chat/completions (stream=true)
+ */
+public class OpenRouterStreamChunk {
+
+    @JsonProperty("id")
+    private String id;
+
+    @JsonProperty("model")
+    private String model;
+
+    @JsonProperty("choices")
+    private List<StreamChoice> choices;
+
+    // Конструкторы
+    public OpenRouterStreamChunk() {}
+
+    // Метод для получения текста фрагмента
+    public String getFirstChoiceDelta() {
+        if (choices != null && !choices.isEmpty() && choices.get(0).getDelta() != null) {
+            return choices.get(0).getDelta().getContent();
+        }
+        return null;
+    }
+
+    // Геттеры и сеттеры
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public List<StreamChoice> getChoices() {
+        return choices;
+    }
+
+    public void setChoices(List<StreamChoice> choices) {
+        this.choices = choices;
+    }
+
+        public static class StreamChoice {
+        @JsonProperty("index")
+        private Integer index;
+
+        @JsonProperty("delta")
+        private OpenRouterMessage delta;
+
+        @JsonProperty("finish_reason")
+        private String finishReason;
+
+        // Конструкторы
+        public StreamChoice() {}
+
+        // Геттеры и сеттеры
+        public Integer getIndex() {
+            return index;
+        }
+
+        public void setIndex(Integer index) {
+            this.index = index;
+        }
+
+        public OpenRouterMessage getDelta() {
+            return delta;
+        }
+
+        public void setDelta(OpenRouterMessage delta) {
+            this.delta = delta;
+        }
+
+        public String getFinishReason() {
+            return finishReason;
+        }
+
+        public void setFinishReason(String finishReason) {
+            this.finishReason = finishReason;
+        }
+    }
+}
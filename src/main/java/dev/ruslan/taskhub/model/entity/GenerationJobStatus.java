@@ -0,0 +1,8 @@
+package dev.ruslan.taskhub.model.entity;
+
+public enum GenerationJobStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+}
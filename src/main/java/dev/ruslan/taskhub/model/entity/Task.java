@@ -12,8 +12,13 @@ import java.time.LocalDateTime;
 @Table(name = "tasks")
 public class Task {
 
+    /**
+     * Шаг последовательности совпадает с allocationSize (changeset 005):
+     * id выдаются блоками без обращения к БД, поэтому INSERT'ы пакетируются
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id_seq")
+    @SequenceGenerator(name = "tasks_id_seq", sequenceName = "tasks_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Title cannot be blank")
@@ -0,0 +1,107 @@
+package dev.ruslan.taskhub.model.entity;
+
+import dev.ruslan.taskhub.model.dto.events.TaskEvent;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись outbox: событие задачи, ожидающее отправки в Kafka.
+ * Сохраняется в той же транзакции, что и изменение задачи.
+ */
+@Entity
+@Table(name = "task_outbox")
+public class TaskOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    /**
+     * Тип события, он же имя топика Kafka
+     */
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private TaskStatus status;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    // Конструкторы
+    public TaskOutboxEvent() {}
+
+    public TaskOutboxEvent(Long taskId, String eventType, String title, TaskStatus status) {
+        this.taskId = taskId;
+        this.eventType = eventType;
+        this.title = title;
+        this.status = status;
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    /**
+     * Событие для отправки в Kafka
+     */
+    public TaskEvent toTaskEvent() {
+        TaskEvent event = new TaskEvent(taskId, title, status, eventType);
+        event.setTimestamp(occurredAt);
+        return event;
+    }
+
+    // Геттеры и сеттеры
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,199 @@
+package dev.ruslan.taskhub.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Допуск запросов к AI-генерации: token bucket на клиента и общий bulkhead с ограниченной очередью.
+ * Лимиты меняются на лету через actuator-эндпоинт {@code aiadmission}.
+ */
+@Component
+public class AiAdmissionControl {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiAdmissionControl.class);
+
+    /**
+     * Решение о допуске запроса
+     *
+     * @param retryAfter через сколько имеет смысл повторить, если запрос не допущен
+     */
+    public record Decision(Outcome outcome, Duration retryAfter) {
+
+        static final Decision ADMITTED = new Decision(Outcome.ADMITTED, Duration.ZERO);
+
+        public boolean isAdmitted() {
+            return outcome == Outcome.ADMITTED;
+        }
+    }
+
+    public enum Outcome {
+        ADMITTED,
+        RATE_LIMITED,
+        OVERLOADED
+    }
+
+    private final Cache<String, TokenBucket> buckets;
+    private final ConcurrencyLimiter limiter;
+
+    private volatile double ratePerMinute;
+    private volatile int burst;
+    private volatile int maxConcurrent;
+    private volatile int maxWaiting;
+    private volatile Duration maxWait;
+
+    private final Counter rateLimited;
+    private final Counter queueFull;
+    private final Counter timedOut;
+
+    public AiAdmissionControl(MeterRegistry meterRegistry,
+                              @Value("${openrouter.admission.rate-per-minute:10}") double ratePerMinute,
+                              @Value("${openrouter.admission.burst:5}") int burst,
+                              @Value("${openrouter.admission.max-concurrent:16}") int maxConcurrent,
+                              @Value("${openrouter.admission.max-waiting:32}") int maxWaiting,
+                              @Value("${openrouter.admission.max-wait:2s}") Duration maxWait,
+                              @Value("${openrouter.admission.client-tracker-size:10000}") long clientTrackerSize) {
+        this.ratePerMinute = ratePerMinute;
+        this.burst = burst;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+        this.maxWait = maxWait;
+        this.limiter = new ConcurrencyLimiter(maxConcurrent, maxWaiting);
+        // Бакет неактивного клиента все равно был бы полон - его можно забыть
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(clientTrackerSize)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+
+        Gauge.builder("taskhub.ai.admission.active", limiter, ConcurrencyLimiter::getActive)
+                .description("AI-запросы, выполняемые сейчас")
+                .register(meterRegistry);
+        Gauge.builder("taskhub.ai.admission.waiting", limiter, ConcurrencyLimiter::getWaiting)
+                .description("AI-запросы, ожидающие свободного слота")
+                .register(meterRegistry);
+        Gauge.builder("taskhub.ai.admission.limit", this, control -> control.maxConcurrent)
+                .description("Лимит одновременных AI-запросов")
+                .register(meterRegistry);
+        Gauge.builder("taskhub.ai.admission.rate", this, control -> control.ratePerMinute)
+                .description("Лимит AI-запросов одного клиента в минуту")
+                .register(meterRegistry);
+        this.rateLimited = rejectedCounter(meterRegistry, "rate_limit");
+        this.queueFull = rejectedCounter(meterRegistry, "queue_full");
+        this.timedOut = rejectedCounter(meterRegistry, "wait_timeout");
+    }
+
+    /**
+     * Проверяет лимит клиента и занимает слот bulkhead'а.
+     * Допущенный запрос обязан вызвать {@link #release()} по завершении.
+     */
+    public Decision admit(String clientId) throws InterruptedException {
+        Decision rateDecision = checkRate(clientId);
+        if (!rateDecision.isAdmitted()) {
+            return rateDecision;
+        }
+        return acquireSlot();
+    }
+
+    /**
+     * Занимает слот bulkhead'а без проверки лимита клиента, ожидая не дольше max-wait.
+     * Так каждый вызов модели из пакетной генерации занимает свой слот.
+     * Допущенный вызов обязан вызвать {@link #release()} по завершении.
+     */
+    public Decision acquireSlot() throws InterruptedException {
+        return switch (limiter.acquire(maxWait.toNanos())) {
+            case ACQUIRED -> Decision.ADMITTED;
+            case QUEUE_FULL -> {
+                queueFull.increment();
+                yield new Decision(Outcome.OVERLOADED, Duration.ofSeconds(1));
+            }
+            case TIMED_OUT -> {
+                timedOut.increment();
+                yield new Decision(Outcome.OVERLOADED, Duration.ofSeconds(1));
+            }
+        };
+    }
+
+    /**
+     * Проверяет только лимит клиента, слот bulkhead'а не занимается.
+     * Для запросов, которые не вызывают модель сами, а ставят задание в очередь.
+     */
+    public Decision checkRate(String clientId) {
+        return checkRate(clientId, 1);
+    }
+
+    /**
+     * Списывает с лимита клиента cost генераций, например по одной на тему пакета
+     */
+    public Decision checkRate(String clientId, int cost) {
+        long now = System.nanoTime();
+        double capacity = burst;
+        TokenBucket bucket = buckets.get(clientId, key -> new TokenBucket(capacity, now));
+        long waitNanos = bucket.tryConsume(cost, capacity, ratePerMinute / 60.0, now);
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            return new Decision(Outcome.RATE_LIMITED, Duration.ofNanos(waitNanos));
+        }
+        return Decision.ADMITTED;
+    }
+
+    public void release() {
+        limiter.release();
+    }
+
+    /**
+     * Меняет лимиты; не переданные значения остаются прежними
+     */
+    public synchronized void updateLimits(Double ratePerMinute, Integer burst, Integer maxConcurrent,
+                                          Integer maxWaiting, Duration maxWait) {
+        if (ratePerMinute != null) {
+            this.ratePerMinute = ratePerMinute;
+        }
+        if (burst != null) {
+            this.burst = burst;
+        }
+        if (maxConcurrent != null) {
+            this.maxConcurrent = maxConcurrent;
+        }
+        if (maxWaiting != null) {
+            this.maxWaiting = maxWaiting;
+        }
+        if (maxWait != null) {
+            this.maxWait = maxWait;
+        }
+        limiter.setLimits(this.maxConcurrent, this.maxWaiting);
+        logger.info("AI admission limits updated: {}", getState());
+    }
+
+    /**
+     * Текущие лимиты и загрузка
+     */
+    public Map<String, Object> getState() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("ratePerMinute", ratePerMinute);
+        state.put("burst", burst);
+        state.put("maxConcurrent", maxConcurrent);
+        state.put("maxWaiting", maxWaiting);
+        state.put("maxWait", maxWait.toString());
+        state.put("active", limiter.getActive());
+        state.put("waiting", limiter.getWaiting());
+        state.put("trackedClients", buckets.estimatedSize());
+        return state;
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("taskhub.ai.admission.rejected")
+                .description("AI-запросы, отклоненные контролем допуска")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,43 @@
+package dev.ruslan.taskhub.ratelimit;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Actuator-эндпоинт /actuator/aiadmission: просмотр и изменение лимитов AI-генерации без рестарта
+ */
+@Component
+@Endpoint(id = "aiadmission")
+public class AiAdmissionEndpoint {
+
+    private final AiAdmissionControl admissionControl;
+
+    public AiAdmissionEndpoint(AiAdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @ReadOperation
+    public Map<String, Object> state() {
+        return admissionControl.getState();
+    }
+
+    @WriteOperation
+    public Map<String, Object> update(@Nullable Double ratePerMinute, @Nullable Integer burst,
+                                      @Nullable Integer maxConcurrent, @Nullable Integer maxWaiting,
+                                      @Nullable Duration maxWait) {
+        if ((ratePerMinute != null && ratePerMinute < 0) || (burst != null && burst < 1)
+                || (maxConcurrent != null && maxConcurrent < 1) || (maxWaiting != null && maxWaiting < 0)
+                || (maxWait != null && maxWait.isNegative())) {
+            throw new InvalidEndpointRequestException("Invalid admission limits", "Limits must not be negative");
+        }
+        admissionControl.updateLimits(ratePerMinute, burst, maxConcurrent, maxWaiting, maxWait);
+        return admissionControl.getState();
+    }
+}
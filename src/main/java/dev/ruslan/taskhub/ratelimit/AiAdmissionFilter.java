@@ -0,0 +1,160 @@
+package dev.ruslan.taskhub.ratelimit;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Контроль допуска перед эндпоинтами AI-генерации.
+ * <p>
+ * Превышение лимита клиента - 429, переполненный bulkhead - 503, оба с Retry-After.
+ * Отказ происходит сразу, до контроллера, поэтому всплеск AI-запросов не занимает
+ * потоки Tomcat, нужные CRUD-эндпоинтам. Для потоковых ответов (SSE, NDJSON)
+ * слот освобождается по завершении асинхронной обработки, а не при выходе из фильтра.
+ * POST /generate только ставит задание в очередь, модель вызывают воркеры заданий,
+ * поэтому для него проверяется лишь лимит клиента: нагрузку ограничивают емкость
+ * очереди и число воркеров, а поток Tomcat не ждет слота bulkhead'а.
+ * POST /generate/batch фильтр не трогает: лимит списывается по темам в контроллере,
+ * а слот bulkhead'а занимает каждый вызов модели в BatchGenerationService.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AiAdmissionFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiAdmissionFilter.class);
+
+    private static final String GENERATE_PATH = "/api/v1/tasks/generate";
+
+    private final AiAdmissionControl admissionControl;
+
+    public AiAdmissionFilter(AiAdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    /**
+     * Под контролем только запросы, вызывающие модель: постановка задания и поток.
+     * Опрос заданий и health остаются дешевыми и не лимитируются.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = path(request);
+        if (HttpMethod.POST.matches(request.getMethod())) {
+            return !path.equals(GENERATE_PATH);
+        }
+        return !(HttpMethod.GET.matches(request.getMethod()) && path.equals(GENERATE_PATH + "/stream"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean enqueueOnly = isEnqueueOnly(request);
+        AiAdmissionControl.Decision decision;
+        try {
+            decision = enqueueOnly
+                    ? admissionControl.checkRate(request.getRemoteAddr())
+                    : admissionControl.admit(request.getRemoteAddr());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(1), "Request interrupted");
+            return;
+        }
+
+        switch (decision.outcome()) {
+            case RATE_LIMITED -> {
+                logger.debug("AI request from {} rate limited", request.getRemoteAddr());
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, decision.retryAfter(),
+                        "AI generation rate limit exceeded");
+                return;
+            }
+            case OVERLOADED -> {
+                logger.debug("AI request from {} rejected, generation is overloaded", request.getRemoteAddr());
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE, decision.retryAfter(),
+                        "AI generation is overloaded, please retry later");
+                return;
+            }
+            case ADMITTED -> {
+                // допущен
+            }
+        }
+
+        if (enqueueOnly) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                admissionControl.release();
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingAsyncListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private static boolean isEnqueueOnly(HttpServletRequest request) {
+        return HttpMethod.POST.matches(request.getMethod()) && path(request).equals(GENERATE_PATH);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, Duration retryAfter, String message)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"timestamp\":\"" + LocalDateTime.now() + "\",\"status\":" + status.value()
+                + ",\"error\":\"" + status.getReasonPhrase() + "\",\"message\":\"" + message + "\"}");
+    }
+
+    private record ReleasingAsyncListener(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // слот остается занятым до завершения обработки
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package dev.ruslan.taskhub.ratelimit;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bulkhead: не больше {@code limit} одновременных вызовов и не больше {@code maxWaiting} ожидающих.
+ * В отличие от {@link java.util.concurrent.Semaphore} лимиты меняются на лету.
+ */
+class ConcurrencyLimiter {
+
+    enum Result {
+        ACQUIRED,
+        QUEUE_FULL,
+        TIMED_OUT
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private int limit;
+    private int maxWaiting;
+    private int active;
+    private int waiting;
+
+    ConcurrencyLimiter(int limit, int maxWaiting) {
+        this.limit = limit;
+        this.maxWaiting = maxWaiting;
+    }
+
+    /**
+     * Занимает слот, ожидая освобождения не дольше maxWaitNanos
+     */
+    Result acquire(long maxWaitNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (active < limit) {
+                active++;
+                return Result.ACQUIRED;
+            }
+            if (waiting >= maxWaiting) {
+                return Result.QUEUE_FULL;
+            }
+            waiting++;
+            try {
+                long remaining = maxWaitNanos;
+                while (active >= limit) {
+                    if (remaining <= 0) {
+                        return Result.TIMED_OUT;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                active++;
+                return Result.ACQUIRED;
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release() {
+        lock.lock();
+        try {
+            active--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void setLimits(int limit, int maxWaiting) {
+        lock.lock();
+        try {
+            this.limit = limit;
+            this.maxWaiting = maxWaiting;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getActive() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
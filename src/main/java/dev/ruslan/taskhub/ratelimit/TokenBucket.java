@@ -0,0 +1,48 @@
+package dev.ruslan.taskhub.ratelimit;
+
+/**
+ * Token bucket одного клиента.
+ * Токены пополняются непрерывно со скоростью {@code ratePerSecond} до {@code capacity};
+ * параметры передаются при каждом вызове, чтобы изменение лимитов применялось сразу ко всем клиентам.
+ */
+class TokenBucket {
+
+    private double tokens;
+    private long refilledAtNanos;
+
+    TokenBucket(double capacity, long nowNanos) {
+        this.tokens = capacity;
+        this.refilledAtNanos = nowNanos;
+    }
+
+    /**
+     * Забирает токен
+     *
+     * @return 0 если токен получен, иначе сколько наносекунд ждать следующего токена
+     */
+    synchronized long tryConsume(double capacity, double ratePerSecond, long nowNanos) {
+        return tryConsume(1, capacity, ratePerSecond, nowNanos);
+    }
+
+    /**
+     * Забирает cost токенов. Запрос дороже емкости допускается при полном бакете и уводит его
+     * в минус: следующие запросы клиента ждут, пока долг не восполнится, и средняя скорость
+     * остается ratePerSecond.
+     *
+     * @return 0 если токены получены, иначе сколько наносекунд ждать
+     */
+    synchronized long tryConsume(int cost, double capacity, double ratePerSecond, long nowNanos) {
+        double elapsedSeconds = (nowNanos - refilledAtNanos) / 1e9;
+        tokens = Math.min(capacity, tokens + elapsedSeconds * ratePerSecond);
+        refilledAtNanos = nowNanos;
+        double required = Math.min(cost, capacity);
+        if (tokens >= required) {
+            tokens -= cost;
+            return 0;
+        }
+        if (ratePerSecond <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return (long) Math.ceil((required - tokens) / ratePerSecond * 1e9);
+    }
+}
@@ -0,0 +1,77 @@
+package dev.ruslan.taskhub.repository;
+
+import dev.ruslan.taskhub.model.entity.GenerationJob;
+import dev.ruslan.taskhub.model.entity.GenerationJobStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface GenerationJobRepository extends JpaRepository<GenerationJob, UUID> {
+
+    /**
+     * ID ожидающих заданий, самые старые первыми
+     */
+    @Query("SELECT j.id FROM GenerationJob j WHERE j.status = :status ORDER BY j.createdAt")
+    List<UUID> findIdsByStatus(@Param("status") GenerationJobStatus status, Limit limit);
+
+    /**
+     * Забирает задание в работу условным UPDATE: из нескольких узлов выигрывает один
+     *
+     * @return 1 если задание захвачено, 0 если его уже взял другой воркер
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE GenerationJob j SET j.status = :running, j.startedAt = :now, j.attempts = j.attempts + 1 "
+        + "WHERE j.id = :id AND j.status = :pending")
+    int claim(@Param("id") UUID id, @Param("now") LocalDateTime now,
+              @Param("pending") GenerationJobStatus pending, @Param("running") GenerationJobStatus running);
+
+    /**
+     * Фиксирует результат задания, которое выполнял этот воркер
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE GenerationJob j SET j.status = :status, j.content = :content, j.error = :error, "
+        + "j.finishedAt = :now WHERE j.id = :id AND j.status = :running")
+    int finish(@Param("id") UUID id, @Param("status") GenerationJobStatus status,
+               @Param("content") String content, @Param("error") String error, @Param("now") LocalDateTime now,
+               @Param("running") GenerationJobStatus running);
+
+    /**
+     * Возвращает в очередь задания, зависшие в RUNNING (узел упал посреди генерации)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE GenerationJob j SET j.status = :pending "
+        + "WHERE j.status = :running AND j.startedAt < :startedBefore AND j.attempts < :maxAttempts")
+    int requeueStale(@Param("startedBefore") LocalDateTime startedBefore, @Param("maxAttempts") int maxAttempts,
+                     @Param("pending") GenerationJobStatus pending, @Param("running") GenerationJobStatus running);
+
+    /**
+     * Завершает ошибкой зависшие задания, исчерпавшие попытки
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE GenerationJob j SET j.status = :failed, j.error = :error, j.finishedAt = :now "
+        + "WHERE j.status = :running AND j.startedAt < :startedBefore AND j.attempts >= :maxAttempts")
+    int failStale(@Param("startedBefore") LocalDateTime startedBefore, @Param("maxAttempts") int maxAttempts,
+                  @Param("error") String error, @Param("now") LocalDateTime now,
+                  @Param("failed") GenerationJobStatus failed, @Param("running") GenerationJobStatus running);
+
+    /**
+     * Удаляет завершенные задания старше срока хранения
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM GenerationJob j WHERE j.finishedAt < :finishedBefore")
+    int deleteFinishedBefore(@Param("finishedBefore") LocalDateTime finishedBefore);
+}
@@ -0,0 +1,17 @@
+package dev.ruslan.taskhub.repository;
+
+import dev.ruslan.taskhub.model.entity.TaskOutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskOutboxRepository extends JpaRepository<TaskOutboxEvent, Long>, TaskOutboxRepositoryCustom {
+
+    /**
+     * Самые старые события outbox в порядке записи
+     */
+    List<TaskOutboxEvent> findAllByOrderByIdAsc(Limit limit);
+}
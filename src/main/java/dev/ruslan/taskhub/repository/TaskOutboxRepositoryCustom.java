@@ -0,0 +1,13 @@
+package dev.ruslan.taskhub.repository;
+
+import dev.ruslan.taskhub.model.entity.TaskOutboxEvent;
+
+import java.util.List;
+
+public interface TaskOutboxRepositoryCustom {
+
+    /**
+     * Вставляет события одним JDBC-пакетом в текущей транзакции
+     */
+    void insertAll(List<TaskOutboxEvent> events);
+}
@@ -0,0 +1,39 @@
+package dev.ruslan.taskhub.repository;
+
+import dev.ruslan.taskhub.model.entity.TaskOutboxEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Пакетная вставка outbox в обход JPA.
+ * id outbox остается BIGSERIAL: relay отправляет события в порядке id, и блоки id,
+ * зарезервированные разными узлами, нарушили бы порядок событий одной задачи.
+ * С IDENTITY Hibernate не пакетирует INSERT'ы, поэтому пакет отправляется через JDBC,
+ * а драйвер с reWriteBatchedInserts превращает его в многострочный INSERT.
+ */
+public class TaskOutboxRepositoryCustomImpl implements TaskOutboxRepositoryCustom {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO task_outbox (task_id, event_type, title, status, occurred_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskOutboxRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<TaskOutboxEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, BATCH_SIZE, (ps, event) -> {
+            ps.setLong(1, event.getTaskId());
+            ps.setString(2, event.getEventType());
+            ps.setString(3, event.getTitle());
+            ps.setString(4, event.getStatus().name());
+            ps.setTimestamp(5, Timestamp.valueOf(event.getOccurredAt()));
+        });
+    }
+}
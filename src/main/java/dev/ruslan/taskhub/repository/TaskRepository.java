@@ -1,10 +1,75 @@
 package dev.ruslan.taskhub.repository;
 
 import dev.ruslan.taskhub.model.entity.Task;
+import dev.ruslan.taskhub.model.entity.TaskStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+
+    /**
+     * Задача с блокировкой строки (SELECT ... FOR UPDATE) до конца транзакции.
+     * Обновления одной задачи выполняются по очереди, и id их событий в outbox
+     * идут в порядке фиксации.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id = :id")
+    Optional<Task> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Задачи с блокировкой строк; строки блокируются в порядке id, чтобы пакетные
+     * обновления с пересекающимися задачами не взаимоблокировались
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids ORDER BY t.id")
+    List<Task> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Все задачи (или задачи со статусом) в порядке id через серверный курсор:
+     * драйвер читает по fetch size строк, сущности загружаются read-only без снимков для dirty checking.
+     * Вызывать внутри транзакции, иначе PgJDBC прочитает результат целиком.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM Task t WHERE (:status IS NULL OR t.status = :status) ORDER BY t.id")
+    Stream<Task> streamAll(@Param("status") TaskStatus status);
+
+    /**
+     * Поиск по idx_tasks_search_vector (слова запроса в заголовке или описании)
+     * и idx_tasks_title_trgm (запрос нечетко входит в заголовок).
+     * Ранг: ts_rank_cd с весами заголовка и описания плюс word_similarity заголовка.
+     */
+    String SEARCH_FROM = "SELECT t.* FROM tasks t, websearch_to_tsquery('simple', :query) q "
+        + "WHERE (t.search_vector @@ q OR :query <% t.title) ";
+
+    String SEARCH_ORDER = "ORDER BY ts_rank_cd(t.search_vector, q) + word_similarity(:query, t.title) DESC, t.id DESC "
+        + "LIMIT :limit OFFSET :offset";
+
+    @Query(value = SEARCH_FROM + SEARCH_ORDER, nativeQuery = true)
+    List<Task> search(@Param("query") String query, @Param("limit") int limit, @Param("offset") int offset);
 
-}
\ No newline at end of file
+    /**
+     * Поиск с фильтром по статусу: отдельный запрос, чтобы планировщик мог
+     * объединить индексы поиска с idx_tasks_status
+     */
+    @Query(value = SEARCH_FROM + "AND t.status = :status " + SEARCH_ORDER, nativeQuery = true)
+    List<Task> searchByStatus(@Param("query") String query, @Param("status") String status,
+                              @Param("limit") int limit, @Param("offset") int offset);
+}
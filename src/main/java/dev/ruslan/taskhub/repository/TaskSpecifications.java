@@ -0,0 +1,62 @@
+package dev.ruslan.taskhub.repository;
+
+import dev.ruslan.taskhub.model.entity.Task;
+import dev.ruslan.taskhub.model.entity.TaskStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Спецификации для фильтрации и keyset-пагинации задач
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {}
+
+    /**
+     * Фильтр по статусу (использует idx_tasks_status)
+     */
+    public static Specification<Task> hasStatus(TaskStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * Фильтр по диапазону даты создания [from, to) (использует idx_tasks_created_at)
+     */
+    public static Specification<Task> createdBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            if (from == null && to == null) {
+                return null;
+            }
+            if (from == null) {
+                return cb.lessThan(root.get("createdAt"), to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+            }
+            return cb.and(
+                cb.greaterThanOrEqualTo(root.get("createdAt"), from),
+                cb.lessThan(root.get("createdAt"), to)
+            );
+        };
+    }
+
+    /**
+     * Keyset-условие для сортировки (created_at DESC, id DESC):
+     * строки строго после курсора
+     */
+    public static Specification<Task> after(LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> {
+            if (createdAt == null || id == null) {
+                return null;
+            }
+            return cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(
+                    cb.equal(root.get("createdAt"), createdAt),
+                    cb.lessThan(root.get("id"), id)
+                )
+            );
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package dev.ruslan.taskhub.repository.reactive;
+
+import dev.ruslan.taskhub.model.entity.TaskRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Реактивный аналог {@link dev.ruslan.taskhub.repository.TaskRepository}
+ */
+@Repository
+public interface TaskR2dbcRepository extends R2dbcRepository<TaskRow, Long> {
+
+    /**
+     * Задача с блокировкой строки до конца транзакции, см. TaskRepository.findByIdForUpdate
+     */
+    @Query("SELECT * FROM tasks WHERE id = :id FOR UPDATE")
+    Mono<TaskRow> findByIdForUpdate(@Param("id") Long id);
+}
@@ -0,0 +1,157 @@
+package dev.ruslan.taskhub.service;
+
+import dev.ruslan.taskhub.cache.GenerationCache;
+import dev.ruslan.taskhub.model.dto.BatchGenerationResult;
+import dev.ruslan.taskhub.model.dto.TaskCreateDto;
+import dev.ruslan.taskhub.model.dto.TaskDto;
+import dev.ruslan.taskhub.model.entity.GenerationJobStatus;
+import dev.ruslan.taskhub.ratelimit.AiAdmissionControl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Пакетная AI-генерация задач.
+ * <p>
+ * Темы генерируются параллельно через неблокирующий WebClient, не больше {@code concurrency}
+ * вызовов OpenRouter одновременно, без выделенного потока на вызов. Результаты отдаются
+ * по мере готовности; ошибка одной темы попадает в ее результат и не прерывает пакет.
+ * Одинаковые (после нормализации) темы пакета генерируются один раз.
+ * Каждый вызов модели занимает свой слот общего bulkhead'а AI-генерации, поэтому пакеты
+ * не превышают лимит одновременных вызовов узла; тема без слота завершается ошибкой.
+ */
+@Service
+public class BatchGenerationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchGenerationService.class);
+
+    /**
+     * Ограничение длины описания задачи (tasks.description)
+     */
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+
+    private final OpenRouterClient openRouterClient;
+    private final GenerationCache generationCache;
+    private final TaskService taskService;
+    private final AiAdmissionControl admissionControl;
+    private final int concurrency;
+    private final int insertChunkSize;
+    private final Duration insertFlushInterval;
+
+    public BatchGenerationService(OpenRouterClient openRouterClient,
+                                  GenerationCache generationCache,
+                                  TaskService taskService,
+                                  AiAdmissionControl admissionControl,
+                                  @Value("${openrouter.batch.concurrency:8}") int concurrency,
+                                  @Value("${openrouter.batch.insert-chunk-size:20}") int insertChunkSize,
+                                  @Value("${openrouter.batch.insert-flush-interval:1s}") Duration insertFlushInterval) {
+        this.openRouterClient = openRouterClient;
+        this.generationCache = generationCache;
+        this.taskService = taskService;
+        this.admissionControl = admissionControl;
+        this.concurrency = concurrency;
+        this.insertChunkSize = insertChunkSize;
+        this.insertFlushInterval = insertFlushInterval;
+    }
+
+    /**
+     * Генерирует задачи по темам
+     *
+     * @param createTasks создать задачи из успешных результатов; вставка идет пачками
+     *                    по мере готовности результатов
+     * @return результаты в порядке готовности
+     */
+    public Flux<BatchGenerationResult> generate(List<String> topics, boolean createTasks) {
+        logger.info("Batch generation of {} topics with concurrency {}", topics.size(), concurrency);
+        Map<String, Mono<Generated>> inFlight = new ConcurrentHashMap<>();
+
+        Flux<BatchGenerationResult> results = Flux.range(0, topics.size())
+            .flatMap(index -> {
+                String topic = topics.get(index);
+                return inFlight.computeIfAbsent(generationCache.key(topic), key -> generateOne(topic).cache())
+                    .map(generated -> BatchGenerationResult.done(index, topic, generated.content(), generated.cached()))
+                    .onErrorResume(e -> {
+                        logger.warn("Batch generation failed for topic '{}': {}", topic, e.getMessage());
+                        return Mono.just(BatchGenerationResult.failed(index, topic, errorMessage(e)));
+                    });
+            }, concurrency);
+
+        if (!createTasks) {
+            return results;
+        }
+        return results
+            .bufferTimeout(insertChunkSize, insertFlushInterval)
+            .concatMap(chunk -> Mono.fromCallable(() -> attachTasks(chunk))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(list -> list));
+    }
+
+    private Mono<Generated> generateOne(String topic) {
+        // Кеш читается и пишется через Redis - блокирующие вызовы уводим с потоков Netty
+        return Mono.fromCallable(() -> generationCache.getIfPresent(topic))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(cached -> cached
+                .map(content -> Mono.just(new Generated(content, true)))
+                .orElseGet(() -> withSlot(openRouterClient.completeTaskAsync(topic))
+                    .publishOn(Schedulers.boundedElastic())
+                    .doOnNext(content -> generationCache.put(topic, content))
+                    .map(content -> new Generated(content, false))));
+    }
+
+    /**
+     * Выполняет вызов модели, заняв слот bulkhead'а; ожидание слота блокирующее,
+     * поэтому идет на boundedElastic
+     */
+    private <T> Mono<T> withSlot(Mono<T> modelCall) {
+        return Mono.fromCallable(admissionControl::acquireSlot)
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(decision -> decision.isAdmitted()
+                ? modelCall.doFinally(signal -> admissionControl.release())
+                : Mono.error(new RejectedExecutionException("AI generation is overloaded, please retry later")));
+    }
+
+    /**
+     * Создает задачи для успешных результатов пачки одним пакетным сохранением
+     */
+    private List<BatchGenerationResult> attachTasks(List<BatchGenerationResult> chunk) {
+        List<BatchGenerationResult> done = chunk.stream()
+            .filter(result -> result.getStatus() == GenerationJobStatus.DONE)
+            .toList();
+        if (done.isEmpty()) {
+            return chunk;
+        }
+        try {
+            List<TaskDto> tasks = taskService.createTasks(done.stream()
+                .map(result -> new TaskCreateDto(result.getTopic(), truncate(result.getContent())))
+                .toList());
+            for (int i = 0; i < done.size(); i++) {
+                done.get(i).setTaskId(tasks.get(i).getId());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to create {} tasks from batch generation: {}", done.size(), e.getMessage());
+            done.forEach(result -> result.setError("Task creation failed"));
+        }
+        return chunk;
+    }
+
+    private static String truncate(String content) {
+        return content.length() > MAX_DESCRIPTION_LENGTH ? content.substring(0, MAX_DESCRIPTION_LENGTH) : content;
+    }
+
+    private static String errorMessage(Throwable e) {
+        return Optional.ofNullable(e.getMessage()).orElse(e.getClass().getSimpleName());
+    }
+
+    private record Generated(String content, boolean cached) {}
+}
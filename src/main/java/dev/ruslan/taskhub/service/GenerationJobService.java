@@ -0,0 +1,255 @@
+package dev.ruslan.taskhub.service;
+
+import dev.ruslan.taskhub.cache.GenerationCache;
+import dev.ruslan.taskhub.model.dto.GenerationJobDto;
+import dev.ruslan.taskhub.model.entity.GenerationJob;
+import dev.ruslan.taskhub.model.entity.GenerationJobStatus;
+import dev.ruslan.taskhub.repository.GenerationJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Асинхронная AI-генерация задач.
+ * <p>
+ * Запрос сохраняет задание в generation_jobs и сразу возвращается, генерацию выполняет
+ * ограниченный пул воркеров. Пропускная способность задается числом воркеров, а не потоками Tomcat;
+ * при заполненной очереди новые задания отклоняются. Задание забирается условным UPDATE,
+ * поэтому при нескольких узлах его выполняет один воркер. Задания, не дошедшие до воркера
+ * (рестарт, переполнение), и зависшие в RUNNING подбираются периодическим восстановлением.
+ */
+@Service
+public class GenerationJobService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerationJobService.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final GenerationJobRepository jobRepository;
+    private final OpenRouterClient openRouterClient;
+    private final GenerationCache generationCache;
+    private final ThreadPoolExecutor executor;
+    private final Duration staleAfter;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    /**
+     * Задания, уже переданные в пул этого узла, чтобы восстановление не ставило их повторно
+     */
+    private final Set<UUID> dispatched = ConcurrentHashMap.newKeySet();
+
+    private final Counter doneJobs;
+    private final Counter failedJobs;
+    private final Counter rejectedJobs;
+    private final Counter cachedJobs;
+
+    public GenerationJobService(GenerationJobRepository jobRepository,
+                                OpenRouterClient openRouterClient,
+                                GenerationCache generationCache,
+                                MeterRegistry meterRegistry,
+                                @Value("${openrouter.jobs.workers:4}") int workers,
+                                @Value("${openrouter.jobs.queue-capacity:100}") int queueCapacity,
+                                @Value("${openrouter.jobs.stale-after:10m}") Duration staleAfter,
+                                @Value("${openrouter.jobs.max-attempts:3}") int maxAttempts,
+                                @Value("${openrouter.jobs.retention:7d}") Duration retention) {
+        this.jobRepository = jobRepository;
+        this.openRouterClient = openRouterClient;
+        this.generationCache = generationCache;
+        this.staleAfter = staleAfter;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+        // Пул не объявлен бином, чтобы не подменять applicationTaskExecutor Spring Boot
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("ai-generation-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("taskhub.ai.jobs.queue", executor, e -> e.getQueue().size())
+                .description("Задания генерации, ожидающие свободного воркера")
+                .register(meterRegistry);
+        Gauge.builder("taskhub.ai.jobs.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Задания генерации, выполняемые сейчас")
+                .register(meterRegistry);
+        this.doneJobs = Counter.builder("taskhub.ai.jobs.completed")
+                .description("Завершенные задания генерации")
+                .tag("outcome", "done")
+                .register(meterRegistry);
+        this.failedJobs = Counter.builder("taskhub.ai.jobs.completed")
+                .description("Завершенные задания генерации")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        this.cachedJobs = Counter.builder("taskhub.ai.jobs.completed")
+                .description("Завершенные задания генерации")
+                .tag("outcome", "cached")
+                .register(meterRegistry);
+        this.rejectedJobs = Counter.builder("taskhub.ai.jobs.rejected")
+                .description("Задания генерации, отклоненные из-за заполненной очереди")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Создает задание и ставит его в очередь воркеров
+     *
+     * @throws RejectedExecutionException если очередь воркеров заполнена
+     */
+    public GenerationJobDto submit(String topic) {
+        Optional<String> cached = generationCache.getIfPresent(topic);
+        if (cached.isPresent()) {
+            GenerationJob job = new GenerationJob(topic);
+            job.setStatus(GenerationJobStatus.DONE);
+            job.setContent(cached.get());
+            job.setStartedAt(job.getCreatedAt());
+            job.setFinishedAt(job.getCreatedAt());
+            job = jobRepository.save(job);
+            cachedJobs.increment();
+            logger.info("Generation job {} served from cache for topic: {}", job.getId(), topic);
+            return GenerationJobDto.from(job);
+        }
+        if (executor.getQueue().remainingCapacity() == 0) {
+            rejectedJobs.increment();
+            throw new RejectedExecutionException("AI generation queue is full");
+        }
+        GenerationJob job = jobRepository.save(new GenerationJob(topic));
+        logger.info("Generation job {} submitted for topic: {}", job.getId(), topic);
+        if (!dispatch(job.getId())) {
+            // Задание уже сохранено - его подберет восстановление, отвечаем клиенту как обычно
+            logger.warn("Generation job {} left pending, worker queue is full", job.getId());
+        }
+        return GenerationJobDto.from(job);
+    }
+
+    public Optional<GenerationJobDto> getJob(UUID id) {
+        return jobRepository.findById(id).map(GenerationJobDto::from);
+    }
+
+    /**
+     * Поднимает незавершенные задания после старта узла
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        recover();
+    }
+
+    /**
+     * Возвращает в очередь зависшие задания и передает в пул ожидающие
+     */
+    @Scheduled(initialDelayString = "${openrouter.jobs.recovery-interval:30s}",
+               fixedDelayString = "${openrouter.jobs.recovery-interval:30s}")
+    public void recover() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime startedBefore = now.minus(staleAfter);
+        int requeued = jobRepository.requeueStale(startedBefore, maxAttempts,
+                GenerationJobStatus.PENDING, GenerationJobStatus.RUNNING);
+        int failed = jobRepository.failStale(startedBefore, maxAttempts, "Generation attempts exhausted", now,
+                GenerationJobStatus.FAILED, GenerationJobStatus.RUNNING);
+        if (requeued > 0 || failed > 0) {
+            logger.warn("Recovered stale generation jobs: {} requeued, {} failed", requeued, failed);
+        }
+        failedJobs.increment(failed);
+
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        List<UUID> pending = jobRepository.findIdsByStatus(GenerationJobStatus.PENDING, Limit.of(capacity));
+        for (UUID id : pending) {
+            if (!dispatched.contains(id) && !dispatch(id)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Удаляет завершенные задания старше срока хранения
+     */
+    @Scheduled(fixedDelayString = "${openrouter.jobs.cleanup-interval:1h}")
+    public void cleanup() {
+        int deleted = jobRepository.deleteFinishedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            logger.info("Deleted {} finished generation jobs", deleted);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        // Незавершенные задания останутся в RUNNING и будут перезапущены после stale-after
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private boolean dispatch(UUID id) {
+        if (!dispatched.add(id)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(id);
+                } finally {
+                    dispatched.remove(id);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            dispatched.remove(id);
+            rejectedJobs.increment();
+            return false;
+        }
+    }
+
+    private void process(UUID id) {
+        if (jobRepository.claim(id, LocalDateTime.now(), GenerationJobStatus.PENDING, GenerationJobStatus.RUNNING) == 0) {
+            logger.debug("Generation job {} already claimed by another worker", id);
+            return;
+        }
+        GenerationJob job = jobRepository.findById(id).orElse(null);
+        if (job == null) {
+            return;
+        }
+        try {
+            String content = generationCache.get(job.getTopic(), () -> openRouterClient.completeTask(job.getTopic()));
+            jobRepository.finish(id, GenerationJobStatus.DONE, content, null, LocalDateTime.now(),
+                    GenerationJobStatus.RUNNING);
+            doneJobs.increment();
+            logger.info("Generation job {} done", id);
+        } catch (RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Остановка узла: задание останется в RUNNING и будет перезапущено восстановлением
+                logger.warn("Generation job {} interrupted by shutdown", id);
+                return;
+            }
+            jobRepository.finish(id, GenerationJobStatus.FAILED, null, truncate(e.getMessage()), LocalDateTime.now(),
+                    GenerationJobStatus.RUNNING);
+            failedJobs.increment();
+            logger.error("Generation job {} failed: {}", id, e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return "Unknown error";
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
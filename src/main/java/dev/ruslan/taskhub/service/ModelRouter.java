@@ -0,0 +1,219 @@
+package dev.ruslan.taskhub.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import dev.ruslan.taskhub.config.OpenRouterModelProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Выбор модели OpenRouter по наблюдаемой задержке и ошибкам.
+ * <p>
+ * Для каждой модели из {@code openrouter.models} хранится скользящее окно задержек успешных
+ * ответов и сглаженная доля ошибок. Модели ранжируются по медианной задержке с поправкой
+ * на ошибки; модель после серии ошибок уходит в конец списка на {@code cooldown}.
+ * Задержка хеджирования для модели - ее p95 в пределах [min-delay, max-delay].
+ */
+@Component
+public class ModelRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelRouter.class);
+
+    private static final double ERROR_RATE_ALPHA = 0.2;
+    private static final double ERROR_PENALTY = 4.0;
+
+    private final List<String> models;
+    private final Map<String, ModelStats> stats = new LinkedHashMap<>();
+    private final boolean hedgingEnabled;
+    private final Duration initialHedgeDelay;
+    private final Duration minHedgeDelay;
+    private final Duration maxHedgeDelay;
+    private final int failureThreshold;
+    private final long cooldownNanos;
+
+    private final Counter hedgesFired;
+
+    @Autowired
+    public ModelRouter(MeterRegistry meterRegistry,
+                       OpenRouterModelProperties modelProperties,
+                       @Value("${openrouter.routing.window-size:50}") int windowSize,
+                       @Value("${openrouter.routing.failure-threshold:3}") int failureThreshold,
+                       @Value("${openrouter.routing.cooldown:30s}") Duration cooldown,
+                       @Value("${openrouter.routing.hedge.enabled:true}") boolean hedgingEnabled,
+                       @Value("${openrouter.routing.hedge.initial-delay:15s}") Duration initialHedgeDelay,
+                       @Value("${openrouter.routing.hedge.min-delay:2s}") Duration minHedgeDelay,
+                       @Value("${openrouter.routing.hedge.max-delay:30s}") Duration maxHedgeDelay) {
+        this(meterRegistry, modelProperties.getModels(), windowSize, failureThreshold, cooldown,
+                hedgingEnabled, initialHedgeDelay, minHedgeDelay, maxHedgeDelay);
+    }
+
+    public ModelRouter(MeterRegistry meterRegistry, List<String> models, int windowSize, int failureThreshold,
+                       Duration cooldown, boolean hedgingEnabled, Duration initialHedgeDelay,
+                       Duration minHedgeDelay, Duration maxHedgeDelay) {
+        if (models.isEmpty()) {
+            throw new IllegalArgumentException("openrouter.models must contain at least one model");
+        }
+        this.models = List.copyOf(models);
+        this.failureThreshold = failureThreshold;
+        this.cooldownNanos = cooldown.toNanos();
+        this.hedgingEnabled = hedgingEnabled;
+        this.initialHedgeDelay = initialHedgeDelay;
+        this.minHedgeDelay = minHedgeDelay;
+        this.maxHedgeDelay = maxHedgeDelay;
+
+        for (String model : this.models) {
+            ModelStats modelStats = new ModelStats(windowSize);
+            stats.put(model, modelStats);
+            Gauge.builder("taskhub.ai.model.latency", modelStats, s -> s.p95Nanos / 1e6)
+                    .description("95-й перцентиль задержки ответа модели, мс")
+                    .tag("model", model)
+                    .register(meterRegistry);
+            Gauge.builder("taskhub.ai.model.error-rate", modelStats, s -> s.errorRate)
+                    .description("Сглаженная доля ошибок модели")
+                    .tag("model", model)
+                    .register(meterRegistry);
+        }
+        this.hedgesFired = Counter.builder("taskhub.ai.model.hedges")
+                .description("Хеджирующие запросы к альтернативной модели")
+                .register(meterRegistry);
+        logger.info("OpenRouter model routing: {} (hedging {})", this.models, hedgingEnabled ? "on" : "off");
+    }
+
+    /**
+     * Модели в порядке настройки
+     */
+    public List<String> getModels() {
+        return models;
+    }
+
+    public boolean isHedgingEnabled() {
+        return hedgingEnabled && models.size() > 1;
+    }
+
+    /**
+     * Модели от лучшей к худшей по текущей статистике
+     */
+    public List<String> rankedModels() {
+        long now = System.nanoTime();
+        double[] scores = models.stream().mapToDouble(model -> stats.get(model).score(now)).toArray();
+        // При равных оценках сохраняем порядок из настройки
+        return IntStream.range(0, models.size()).boxed()
+                .sorted(Comparator.comparingDouble(i -> scores[i]))
+                .map(models::get)
+                .toList();
+    }
+
+    /**
+     * Через сколько после запроса к модели отправлять хеджирующий запрос к альтернативной
+     */
+    public Duration hedgeDelay(String model) {
+        long p95 = stats.get(model).p95Nanos;
+        if (p95 == 0) {
+            return initialHedgeDelay;
+        }
+        Duration delay = Duration.ofNanos(p95);
+        if (delay.compareTo(minHedgeDelay) < 0) {
+            return minHedgeDelay;
+        }
+        return delay.compareTo(maxHedgeDelay) > 0 ? maxHedgeDelay : delay;
+    }
+
+    public void recordSuccess(String model, long latencyNanos) {
+        stats.get(model).recordSuccess(latencyNanos);
+    }
+
+    /**
+     * Запрос к модели отменен до ответа (проиграл хеджирующему). Настоящая задержка
+     * не меньше прошедшего времени: если оно больше ожидаемой, учитывается как нижняя оценка,
+     * иначе перегруженная модель сохраняла бы старую статистику и оставалась первой.
+     */
+    public void recordCancelled(String model, long elapsedNanos) {
+        stats.get(model).recordCensored(elapsedNanos);
+    }
+
+    public void recordFailure(String model) {
+        ModelStats modelStats = stats.get(model);
+        if (modelStats.recordFailure(System.nanoTime()) == failureThreshold) {
+            logger.warn("Model {} failed {} times in a row, deprioritized for {} s",
+                    model, failureThreshold, Duration.ofNanos(cooldownNanos).toSeconds());
+        }
+    }
+
+    public void recordHedge() {
+        hedgesFired.increment();
+    }
+
+    /**
+     * Статистика одной модели; обновляется по завершении запроса, читается без блокировок
+     */
+    private class ModelStats {
+
+        private final long[] latencies;
+        private int next;
+        private int samples;
+
+        private volatile long p50Nanos;
+        private volatile long p95Nanos;
+        private volatile double errorRate;
+        private volatile int consecutiveFailures;
+        private volatile long lastFailureNanos;
+
+        ModelStats(int windowSize) {
+            this.latencies = new long[windowSize];
+        }
+
+        synchronized void recordSuccess(long latencyNanos) {
+            addSample(latencyNanos);
+            errorRate = errorRate * (1 - ERROR_RATE_ALPHA);
+            consecutiveFailures = 0;
+        }
+
+        synchronized void recordCensored(long elapsedNanos) {
+            // Отмена раньше ожидаемого ответа ничего не говорит о задержке
+            long expected = p50Nanos > 0 ? p50Nanos : initialHedgeDelay.toNanos();
+            if (elapsedNanos > expected) {
+                addSample(elapsedNanos);
+            }
+        }
+
+        private void addSample(long latencyNanos) {
+            latencies[next] = latencyNanos;
+            next = (next + 1) % latencies.length;
+            samples = Math.min(samples + 1, latencies.length);
+            long[] sorted = Arrays.copyOf(latencies, samples);
+            Arrays.sort(sorted);
+            p50Nanos = sorted[(int) Math.ceil(0.5 * samples) - 1];
+            p95Nanos = sorted[(int) Math.ceil(0.95 * samples) - 1];
+        }
+
+        synchronized int recordFailure(long nowNanos) {
+            errorRate = errorRate * (1 - ERROR_RATE_ALPHA) + ERROR_RATE_ALPHA;
+            lastFailureNanos = nowNanos;
+            return ++consecutiveFailures;
+        }
+
+        /**
+         * Чем меньше, тем лучше. Модель без статистики получает начальную задержку хеджирования,
+         * чтобы ее иногда пробовали, но не раньше проверенной быстрой модели.
+         */
+        double score(long nowNanos) {
+            if (consecutiveFailures >= failureThreshold && nowNanos - lastFailureNanos < cooldownNanos) {
+                return Double.MAX_VALUE;
+            }
+            double latency = p50Nanos > 0 ? p50Nanos : initialHedgeDelay.toNanos();
+            return latency * (1 + ERROR_PENALTY * errorRate);
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package dev.ruslan.taskhub.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.ruslan.taskhub.model.dto.openrouter.OpenRouterMessage;
 import dev.ruslan.taskhub.model.dto.openrouter.OpenRouterRequest;
 import dev.ruslan.taskhub.model.dto.openrouter.OpenRouterResponse;
+import dev.ruslan.taskhub.model.dto.openrouter.OpenRouterStreamChunk;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
@@ -15,6 +20,9 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
 
 import java.time.Duration;
 import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.util.retry.Retry;
 
 @Service
@@ -22,63 +30,41 @@ public class OpenRouterClient {
 
     private static final Logger logger = LoggerFactory.getLogger(OpenRouterClient.class);
     
+    /**
+     * Версия промпта генерации: меняется вместе с текстом промпта, чтобы старые ответы не брались из кеша
+     */
+    public static final String PROMPT_VERSION = "v1";
+
+    /**
+     * Маркер конца потока в SSE-ответе chat/completions
+     */
+    private static final String STREAM_DONE = "[DONE]";
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private static final ObjectMapper STREAM_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
     private final WebClient webClient;
-    private final String apiKey;
-
-    public OpenRouterClient(@Value("${openrouter.api.key}") String apiKey) {
-        this.apiKey = apiKey;
-        
-        // Принудительно используем IPv4 для решения проблем с сетью
-        System.setProperty("java.net.preferIPv4Stack", "true");
-        System.setProperty("java.net.preferIPv6Addresses", "false");
-        
-        this.webClient = WebClient.builder()
-                .baseUrl("https://openrouter.ai/api/v1")
-                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + this.apiKey)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .defaultHeader("HTTP-Referer", "https://taskhub.dev")
-                .defaultHeader("X-Title", "TaskHub AI Integration")
-                .codecs(configurer -> configurer
-                        .defaultCodecs()
-                        .maxInMemorySize(1024 * 1024)) // 1MB buffer
-                .build();
+    private final ModelRouter modelRouter;
+
+    public OpenRouterClient(@Qualifier("openRouter") WebClient webClient, ModelRouter modelRouter) {
+        this.webClient = webClient;
+        this.modelRouter = modelRouter;
     }
 
     /**
      * Генерирует техническую задачу на основе переданной темы
      * 
      * @param topic тема для генерации задачи
-     * @return сгенерированный текст задачи
+     * @return сгенерированный текст задачи или текст ошибки
      */
     public String generateTask(String topic) {
         try {
-            logger.info("Генерация задачи для темы: {}", topic);
-
-            OpenRouterRequest request = getOpenRouterRequest(topic);
-
-            OpenRouterResponse response = webClient
-                .post()
-                .uri("/chat/completions")
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(OpenRouterResponse.class)
-                .timeout(Duration.ofSeconds(45))
-                .retryWhen(Retry.backoff(3, Duration.ofSeconds(2))
-                    .maxBackoff(Duration.ofSeconds(10))
-                    .doBeforeRetry(retrySignal -> 
-                        logger.warn("Повторная попытка подключения к OpenRouter API. Попытка: {}", 
-                            retrySignal.totalRetries() + 1)))
-                .block();
-
-            if (response != null && response.getFirstChoiceContent() != null) {
-                String generatedContent = response.getFirstChoiceContent();
-                logger.info("Успешно сгенерирована задача. Длина ответа: {} символов", generatedContent.length());
-                return generatedContent;
-            } else {
-                logger.warn("Получен пустой ответ от OpenRouter API");
-                return "Не удалось сгенерировать задачу. Пустой ответ от AI.";
-            }
-
+            return completeTask(topic);
+        } catch (EmptyResponseException e) {
+            return "Не удалось сгенерировать задачу. Пустой ответ от AI.";
         } catch (WebClientResponseException e) {
             logger.error("Ошибка при запросе к OpenRouter API. Статус: {}, Тело ответа: {}", 
                         e.getStatusCode(), e.getResponseBodyAsString(), e);
@@ -104,7 +90,140 @@ public class OpenRouterClient {
         }
     }
 
-    private static OpenRouterRequest getOpenRouterRequest(String topic) {
+    /**
+     * Генерирует техническую задачу, пробрасывая ошибки вызывающему
+     * 
+     * @param topic тема для генерации задачи
+     * @return сгенерированный текст задачи
+     * @throws EmptyResponseException если AI вернул пустой ответ
+     */
+    public String completeTask(String topic) {
+        return completeTaskAsync(topic).block();
+    }
+
+    /**
+     * Генерирует техническую задачу без блокировки вызывающего потока
+     * <p>
+     * Запрос идет к лучшей по статистике модели. Если она не ответила за свой p95
+     * (или сразу вернула ошибку), параллельно запрашивается следующая модель и берется
+     * первый успешный ответ. Повторы заново выбирают модели, поэтому после ошибок
+     * запросы уходят на другие модели.
+     * 
+     * @param topic тема для генерации задачи
+     * @return сгенерированный текст задачи или ошибка {@link EmptyResponseException}
+     */
+    public Mono<String> completeTaskAsync(String topic) {
+        return Mono.defer(() -> routedCompletion(topic))
+            .retryWhen(Retry.backoff(3, Duration.ofSeconds(2))
+                .maxBackoff(Duration.ofSeconds(10))
+                .doBeforeRetry(retrySignal -> 
+                    logger.warn("Повторная попытка подключения к OpenRouter API. Попытка: {}", 
+                        retrySignal.totalRetries() + 1)));
+    }
+
+    private Mono<String> routedCompletion(String topic) {
+        logger.info("Генерация задачи для темы: {}", topic);
+
+        List<String> models = modelRouter.rankedModels();
+        String primary = models.get(0);
+        if (!modelRouter.isHedgingEnabled()) {
+            return completeWithModel(topic, primary);
+        }
+
+        String alternate = models.get(1);
+        Duration hedgeDelay = modelRouter.hedgeDelay(primary);
+        Sinks.Empty<Void> primaryFailed = Sinks.empty();
+
+        Mono<String> primaryCall = completeWithModel(topic, primary)
+            .doOnError(e -> primaryFailed.tryEmitEmpty());
+        Mono<String> hedgeCall = Mono.firstWithSignal(Mono.delay(hedgeDelay).then(), primaryFailed.asMono())
+            .then(Mono.defer(() -> {
+                modelRouter.recordHedge();
+                logger.info("Модель {} не ответила за {} мс, запрос к модели {}", 
+                    primary, hedgeDelay.toMillis(), alternate);
+                return completeWithModel(topic, alternate);
+            }));
+
+        // Проигравший запрос отменяется
+        return Mono.firstWithValue(primaryCall, hedgeCall);
+    }
+
+    private Mono<String> completeWithModel(String topic, String model) {
+        OpenRouterRequest request = getOpenRouterRequest(topic, model);
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return webClient
+                .post()
+                .uri("/chat/completions")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(OpenRouterResponse.class)
+                .timeout(Duration.ofSeconds(45))
+                .mapNotNull(OpenRouterResponse::getFirstChoiceContent)
+                .switchIfEmpty(Mono.error(() -> {
+                    logger.warn("Получен пустой ответ от OpenRouter API, модель {}", model);
+                    return new EmptyResponseException();
+                }))
+                .doOnNext(generatedContent -> {
+                    modelRouter.recordSuccess(model, System.nanoTime() - start);
+                    logger.info("Успешно сгенерирована задача моделью {}. Длина ответа: {} символов", 
+                        model, generatedContent.length());
+                })
+                .doOnError(e -> {
+                    modelRouter.recordFailure(model);
+                    logger.warn("Ошибка генерации моделью {}: {}", model, e.getMessage());
+                })
+                // Проигравший хеджирование запрос отменяется: время ожидания тоже статистика
+                .doOnCancel(() -> modelRouter.recordCancelled(model, System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * Генерирует техническую задачу в потоковом режиме
+     * <p>
+     * Фрагменты текста отдаются по мере получения от модели и не накапливаются:
+     * следующий фрагмент читается из сокета только после того, как подписчик
+     * запросил его, поэтому буферизация ограничена окном Reactor Netty.
+     * Повторов нет - после первого фрагмента повтор продублировал бы текст.
+     * 
+     * @param topic тема для генерации задачи
+     * @return поток фрагментов Markdown
+     */
+    public Flux<String> streamTask(String topic) {
+        logger.info("Потоковая генерация задачи для темы: {}", topic);
+
+        // Поток не хеджируется: берем лучшую по статистике модель
+        OpenRouterRequest request = getOpenRouterRequest(topic, modelRouter.rankedModels().get(0));
+        request.setStream(true);
+
+        return webClient
+            .post()
+            .uri("/chat/completions")
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .bodyValue(request)
+            .retrieve()
+            .bodyToFlux(SSE_TYPE)
+            // Комментарии-пинги (": OPENROUTER PROCESSING") приходят без data
+            .mapNotNull(ServerSentEvent::data)
+            .takeWhile(data -> !STREAM_DONE.equals(data.trim()))
+            .mapNotNull(OpenRouterClient::parseDelta)
+            .filter(delta -> !delta.isEmpty())
+            // Ограничивает ожидание каждого фрагмента, включая первый
+            .timeout(Duration.ofSeconds(45))
+            .doOnComplete(() -> logger.info("Потоковая генерация завершена для темы: {}", topic))
+            .doOnError(e -> logger.error("Ошибка потоковой генерации для темы {}: {}", topic, e.getMessage()));
+    }
+
+    private static String parseDelta(String data) {
+        try {
+            return STREAM_MAPPER.readValue(data, OpenRouterStreamChunk.class).getFirstChoiceDelta();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Некорректный фрагмент ответа OpenRouter: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static OpenRouterRequest getOpenRouterRequest(String topic, String model) {
         String systemPrompt = """
             Ты - технический аналитик, который создает детальные технические задачи для разработчиков.
             
@@ -135,7 +254,7 @@ public class OpenRouterClient {
         String userPrompt = String.format("Создай техническую задачу на тему: %s", topic);
 
         return new OpenRouterRequest(
-            "mistralai/mistral-7b-instruct:free",
+            model,
             List.of(
                 OpenRouterMessage.systemMessage(systemPrompt),
                 OpenRouterMessage.userMessage(userPrompt)
@@ -144,28 +263,27 @@ public class OpenRouterClient {
     }
 
     /**
-     * Проверяет доступность OpenRouter API
+     * Легкая проверка доступности OpenRouter API: запрос сведений о ключе без вызова модели
      * 
-     * @return true если API доступно, false иначе
+     * @return завершается успешно, если API ответило 2xx
      */
-    public boolean isApiAvailable() {
-        try {
-            // Простой тестовый запрос
-            webClient
-                .post()
-                .uri("/chat/completions")
-                .bodyValue(new OpenRouterRequest(
-                    "mistralai/mistral-7b-instruct:free",
-                    List.of(OpenRouterMessage.userMessage("test"))
-                ))
-                .retrieve()
-                .bodyToMono(OpenRouterResponse.class)
-                .timeout(Duration.ofSeconds(5))
-                .block();
-            return true;
-        } catch (Exception e) {
-            logger.warn("OpenRouter API недоступно: {}", e.getMessage());
-            return false;
+    public Mono<Void> probe(Duration timeout) {
+        return webClient
+            .get()
+            .uri("/key")
+            .retrieve()
+            .toBodilessEntity()
+            .timeout(timeout)
+            .then();
+    }
+
+    /**
+     * AI вернул ответ без содержимого
+     */
+    public static class EmptyResponseException extends RuntimeException {
+
+        public EmptyResponseException() {
+            super("Пустой ответ от AI");
         }
     }
-}
\ No newline at end of file
+}
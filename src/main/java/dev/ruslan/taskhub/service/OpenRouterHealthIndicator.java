@@ -0,0 +1,38 @@
+package dev.ruslan.taskhub.service;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health-индикатор OpenRouter (компонент "openRouter", группа "ai").
+ * Отдает последний снимок {@link OpenRouterHealthMonitor} без запросов к API.
+ */
+@Component("openRouter")
+public class OpenRouterHealthIndicator implements HealthIndicator {
+
+    private final OpenRouterHealthMonitor monitor;
+
+    public OpenRouterHealthIndicator(OpenRouterHealthMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Health health() {
+        OpenRouterHealthMonitor.Snapshot snapshot = monitor.getSnapshot();
+        if (snapshot.samples() == 0) {
+            return Health.unknown().withDetail("reason", "No probes yet").build();
+        }
+        Health.Builder builder = monitor.isAvailable() ? Health.up() : Health.down();
+        builder.withDetail("successRate", snapshot.successRate())
+                .withDetail("samples", snapshot.samples())
+                .withDetail("latencyP50Ms", snapshot.p50().toMillis())
+                .withDetail("latencyP95Ms", snapshot.p95().toMillis())
+                .withDetail("lastProbeAt", snapshot.lastProbeAt().toString())
+                .withDetail("lastProbeSucceeded", snapshot.lastProbeSucceeded());
+        if (snapshot.lastError() != null) {
+            builder.withDetail("lastError", snapshot.lastError());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,136 @@
+package dev.ruslan.taskhub.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Фоновый мониторинг доступности OpenRouter.
+ * <p>
+ * По расписанию отправляет легкий запрос {@link OpenRouterClient#probe(Duration)} без вызова модели
+ * и хранит результаты последних {@code window-size} проверок. После каждой проверки собирается
+ * неизменяемый снимок (доля успешных проверок, перцентили задержки), поэтому health-запросы
+ * читают готовое значение за O(1) и не ходят в OpenRouter.
+ */
+@Component
+public class OpenRouterHealthMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenRouterHealthMonitor.class);
+
+    private final OpenRouterClient openRouterClient;
+    private final Duration probeTimeout;
+    private final double minSuccessRate;
+
+    // Кольцевой буфер последних проверок; пишется только из завершения проверки
+    private final boolean[] outcomes;
+    private final long[] latenciesNanos;
+    private int next;
+    private int samples;
+
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public OpenRouterHealthMonitor(OpenRouterClient openRouterClient,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${openrouter.health.probe-timeout:5s}") Duration probeTimeout,
+                                   @Value("${openrouter.health.window-size:20}") int windowSize,
+                                   @Value("${openrouter.health.min-success-rate:0.5}") double minSuccessRate) {
+        this.openRouterClient = openRouterClient;
+        this.probeTimeout = probeTimeout;
+        this.minSuccessRate = minSuccessRate;
+        this.outcomes = new boolean[windowSize];
+        this.latenciesNanos = new long[windowSize];
+
+        Gauge.builder("taskhub.ai.health.success-rate", this, monitor -> monitor.getSnapshot().successRate())
+                .description("Доля успешных проверок OpenRouter в скользящем окне")
+                .register(meterRegistry);
+        Gauge.builder("taskhub.ai.health.latency", this, monitor -> monitor.getSnapshot().p95().toMillis())
+                .description("95-й перцентиль задержки проверок OpenRouter, мс")
+                .tag("quantile", "0.95")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Последний снимок состояния OpenRouter
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * OpenRouter считается доступным, если доля успешных проверок в окне не ниже порога
+     */
+    public boolean isAvailable() {
+        Snapshot current = snapshot;
+        return current.samples() > 0 && current.successRate() >= minSuccessRate;
+    }
+
+    /**
+     * Запускает проверку без блокировки потока планировщика; следующая не стартует, пока идет текущая
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${openrouter.health.probe-interval:30s}")
+    public void probe() {
+        if (!probing.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        openRouterClient.probe(probeTimeout)
+            .doFinally(signal -> probing.set(false))
+            .subscribe(
+                ignored -> {},
+                error -> record(false, System.nanoTime() - start, error.getMessage()),
+                () -> record(true, System.nanoTime() - start, null));
+    }
+
+    private synchronized void record(boolean success, long latencyNanos, String error) {
+        outcomes[next] = success;
+        latenciesNanos[next] = latencyNanos;
+        next = (next + 1) % outcomes.length;
+        samples = Math.min(samples + 1, outcomes.length);
+
+        int succeeded = 0;
+        for (int i = 0; i < samples; i++) {
+            if (outcomes[i]) {
+                succeeded++;
+            }
+        }
+        long[] sorted = Arrays.copyOf(latenciesNanos, samples);
+        Arrays.sort(sorted);
+
+        Snapshot previous = snapshot;
+        snapshot = new Snapshot(samples, (double) succeeded / samples,
+                Duration.ofNanos(percentile(sorted, 0.5)), Duration.ofNanos(percentile(sorted, 0.95)),
+                Instant.now(), success, error);
+
+        if (success != previous.lastProbeSucceeded() || previous.samples() == 0) {
+            if (success) {
+                logger.info("OpenRouter probe succeeded in {} ms", Duration.ofNanos(latencyNanos).toMillis());
+            } else {
+                logger.warn("OpenRouter probe failed: {}", error);
+            }
+        }
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    /**
+     * Состояние OpenRouter по скользящему окну проверок
+     */
+    public record Snapshot(int samples, double successRate, Duration p50, Duration p95,
+                           Instant lastProbeAt, boolean lastProbeSucceeded, String lastError) {
+
+        static final Snapshot EMPTY = new Snapshot(0, 0, Duration.ZERO, Duration.ZERO, null, false, null);
+    }
+}
@@ -0,0 +1,188 @@
+package dev.ruslan.taskhub.service;
+
+import dev.ruslan.taskhub.cache.ReactiveTaskCache;
+import dev.ruslan.taskhub.mapper.TaskMapper;
+import dev.ruslan.taskhub.model.dto.TaskCreateDto;
+import dev.ruslan.taskhub.model.dto.TaskDto;
+import dev.ruslan.taskhub.model.dto.TaskPageDto;
+import dev.ruslan.taskhub.model.dto.events.TaskEvent;
+import dev.ruslan.taskhub.model.entity.TaskRow;
+import dev.ruslan.taskhub.model.entity.TaskStatus;
+import dev.ruslan.taskhub.repository.reactive.TaskR2dbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Реактивный вариант {@link TaskService} на R2DBC для профиля WebFlux.
+ * Семантика та же: keyset-пагинация, кеш "task" в Redis, события через outbox.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTaskService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTaskService.class);
+
+    private static final Sort PAGE_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private static final String INSERT_OUTBOX_SQL = """
+            INSERT INTO task_outbox (task_id, event_type, title, status, occurred_at)
+            VALUES (:taskId, :eventType, :title, :status, :occurredAt)
+            """;
+
+    private final TaskR2dbcRepository taskRepository;
+    private final R2dbcEntityTemplate entityTemplate;
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final TaskMapper taskMapper;
+    private final ReactiveTaskCache taskCache;
+
+    public ReactiveTaskService(TaskR2dbcRepository taskRepository,
+                               R2dbcEntityTemplate entityTemplate,
+                               DatabaseClient databaseClient,
+                               TransactionalOperator reactiveTransactionalOperator,
+                               TaskMapper taskMapper,
+                               ReactiveTaskCache taskCache) {
+        this.taskRepository = taskRepository;
+        this.entityTemplate = entityTemplate;
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = reactiveTransactionalOperator;
+        this.taskMapper = taskMapper;
+        this.taskCache = taskCache;
+    }
+
+    /**
+     * Страница задач с keyset-пагинацией по (created_at DESC, id DESC)
+     */
+    public Mono<TaskPageDto> getTasksPage(TaskStatus status, LocalDateTime createdFrom, LocalDateTime createdTo,
+                                          String cursor, int size) {
+        if (size < 1 || size > TaskService.MAX_PAGE_SIZE) {
+            return Mono.error(new IllegalArgumentException(
+                "Page size must be between 1 and " + TaskService.MAX_PAGE_SIZE));
+        }
+        TaskCursor after;
+        try {
+            after = cursor != null && !cursor.isBlank() ? TaskCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+
+        Criteria criteria = Criteria.empty();
+        if (status != null) {
+            criteria = criteria.and("status").is(status.name());
+        }
+        if (createdFrom != null) {
+            criteria = criteria.and("createdAt").greaterThanOrEquals(createdFrom);
+        }
+        if (createdTo != null) {
+            criteria = criteria.and("createdAt").lessThan(createdTo);
+        }
+        if (after != null) {
+            criteria = criteria.and(Criteria.where("createdAt").lessThan(after.getCreatedAt())
+                .or(Criteria.where("createdAt").is(after.getCreatedAt()).and("id").lessThan(after.getId())));
+        }
+
+        // Запрашиваем на одну запись больше, чтобы понять, есть ли следующая страница
+        return entityTemplate.select(TaskRow.class)
+            .matching(Query.query(criteria).sort(PAGE_SORT).limit(size + 1))
+            .all()
+            .map(taskMapper::toDto)
+            .collectList()
+            .map(tasks -> toPage(tasks, size));
+    }
+
+    private TaskPageDto toPage(List<TaskDto> tasks, int size) {
+        boolean hasNext = tasks.size() > size;
+        List<TaskDto> items = hasNext ? tasks.subList(0, size) : tasks;
+        String nextCursor = null;
+        if (hasNext) {
+            TaskDto last = items.get(items.size() - 1);
+            nextCursor = new TaskCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        logger.debug("Loaded {} tasks from database, hasNext={}", items.size(), hasNext);
+        return new TaskPageDto(items, nextCursor);
+    }
+
+    public Mono<TaskDto> getTaskById(Long id) {
+        return taskCache.get(id)
+            .switchIfEmpty(Mono.defer(() -> {
+                logger.debug("Fetching task with ID: {} from database (cache miss)", id);
+                return taskRepository.findById(id)
+                    .map(taskMapper::toDto)
+                    .flatMap(task -> taskCache.put(task).thenReturn(task));
+            }));
+    }
+
+    public Mono<TaskDto> createTask(TaskCreateDto taskCreateDto) {
+        TaskRow row = taskMapper.toRow(taskCreateDto);
+        LocalDateTime now = now();
+        row.setCreatedAt(now);
+        row.setUpdatedAt(now);
+
+        return taskRepository.save(row)
+            .map(taskMapper::toDto)
+            .flatMap(task -> saveOutboxEvent(task, TaskEvent.TASK_CREATED).thenReturn(task))
+            .as(transactionalOperator::transactional)
+            // Кеш обновляется после коммита, как у транзакционного CacheManager
+            .flatMap(task -> taskCache.put(task).then(taskCache.bumpCollectionVersion()).thenReturn(task))
+            .doOnNext(task -> logger.debug("Created task with ID: {}", task.getId()));
+    }
+
+    public Mono<TaskDto> updateTask(Long id, TaskDto taskDto) {
+        // Строка блокируется до записи в outbox, как в TaskService.updateTask
+        return taskRepository.findByIdForUpdate(id)
+            .flatMap(row -> {
+                taskMapper.updateRowFromDto(taskDto, row);
+                row.setUpdatedAt(now());
+                return taskRepository.save(row);
+            })
+            .map(taskMapper::toDto)
+            .flatMap(task -> saveOutboxEvent(task, TaskEvent.TASK_UPDATED).thenReturn(task))
+            .as(transactionalOperator::transactional)
+            .flatMap(task -> taskCache.put(task).then(taskCache.bumpCollectionVersion()).thenReturn(task))
+            .doOnNext(task -> logger.debug("Updated task with ID: {}", id));
+    }
+
+    public Mono<Boolean> deleteTask(Long id) {
+        return taskRepository.existsById(id)
+            .flatMap(exists -> exists
+                ? taskRepository.deleteById(id).thenReturn(true)
+                : Mono.just(false))
+            .as(transactionalOperator::transactional)
+            .flatMap(deleted -> deleted
+                ? taskCache.evict(id).then(taskCache.bumpCollectionVersion()).thenReturn(true)
+                : Mono.just(false));
+    }
+
+    /**
+     * Событие пишется в outbox в той же транзакции, в Kafka его отправит TaskOutboxRelay
+     */
+    private Mono<Void> saveOutboxEvent(TaskDto task, String eventType) {
+        return databaseClient.sql(INSERT_OUTBOX_SQL)
+            .bind("taskId", task.getId())
+            .bind("eventType", eventType)
+            .bind("title", task.getTitle())
+            .bind("status", task.getStatus().name())
+            .bind("occurredAt", now())
+            .then();
+    }
+
+    /**
+     * Postgres хранит микросекунды: обрезаем, чтобы значение в ответе совпадало с сохраненным
+     */
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
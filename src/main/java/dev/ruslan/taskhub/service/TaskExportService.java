@@ -0,0 +1,115 @@
+package dev.ruslan.taskhub.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import dev.ruslan.taskhub.mapper.TaskMapper;
+import dev.ruslan.taskhub.model.dto.TaskDto;
+import dev.ruslan.taskhub.model.dto.TaskFileFormat;
+import dev.ruslan.taskhub.model.entity.Task;
+import dev.ruslan.taskhub.model.entity.TaskStatus;
+import dev.ruslan.taskhub.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка задач в NDJSON или CSV.
+ * Задачи читаются серверным курсором и пишутся в ответ по одной, каждая сущность
+ * сразу отсоединяется от persistence context, поэтому память не зависит от числа строк.
+ */
+@Service
+public class TaskExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskExportService.class);
+
+    private static final String CSV_HEADER = "id,title,description,status,createdAt,updatedAt";
+
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final EntityManager entityManager;
+    private final ObjectWriter jsonWriter;
+
+    public TaskExportService(TaskRepository taskRepository, TaskMapper taskMapper,
+                             EntityManager entityManager, ObjectMapper objectMapper) {
+        this.taskRepository = taskRepository;
+        this.taskMapper = taskMapper;
+        this.entityManager = entityManager;
+        this.jsonWriter = objectMapper.writerFor(TaskDto.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+    }
+
+    /**
+     * Пишет задачи в поток. Транзакция read-only держит курсор открытым
+     * и отключает flush и dirty checking сессии.
+     *
+     * @return количество выгруженных задач
+     */
+    @Transactional(readOnly = true)
+    public long export(TaskStatus status, TaskFileFormat format, OutputStream out) throws IOException {
+        logger.debug("Exporting tasks: status={}, format={}", status, format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+        try (Stream<Task> tasks = taskRepository.streamAll(status)) {
+            if (format == TaskFileFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                Task task = iterator.next();
+                TaskDto dto = taskMapper.toDto(task);
+                entityManager.detach(task);
+                if (format == TaskFileFormat.CSV) {
+                    writeCsv(writer, dto);
+                } else {
+                    jsonWriter.writeValue(writer, dto);
+                }
+                writer.write('\n');
+                count++;
+            }
+        }
+        writer.flush();
+        logger.info("Exported {} tasks as {}", count, format);
+        return count;
+    }
+
+    private static void writeCsv(Writer writer, TaskDto task) throws IOException {
+        writer.write(String.valueOf(task.getId()));
+        writer.write(',');
+        writer.write(csvField(task.getTitle()));
+        writer.write(',');
+        writer.write(csvField(task.getDescription()));
+        writer.write(',');
+        writer.write(task.getStatus() != null ? task.getStatus().name() : "");
+        writer.write(',');
+        writer.write(task.getCreatedAt() != null ? task.getCreatedAt().toString() : "");
+        writer.write(',');
+        writer.write(task.getUpdatedAt() != null ? task.getUpdatedAt().toString() : "");
+    }
+
+    /**
+     * Экранирование по RFC 4180: поле в кавычках, если в нем есть разделитель, кавычка или перевод строки
+     */
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,13 +1,22 @@
 package dev.ruslan.taskhub.service;
 
-import dev.ruslan.taskhub.kafka.TaskKafkaProducer;
+import dev.ruslan.taskhub.cache.TaskAccessTracker;
+import dev.ruslan.taskhub.cache.RedisBulkCacheWriter;
+import dev.ruslan.taskhub.cache.TaskCachePopulator;
+import dev.ruslan.taskhub.cache.TaskCollectionVersion;
+import dev.ruslan.taskhub.exception.TaskNotFoundException;
 import dev.ruslan.taskhub.mapper.TaskMapper;
 import dev.ruslan.taskhub.model.dto.TaskCreateDto;
 import dev.ruslan.taskhub.model.dto.TaskDto;
+import dev.ruslan.taskhub.model.dto.TaskPageDto;
+import dev.ruslan.taskhub.model.dto.TaskSearchPageDto;
 import dev.ruslan.taskhub.model.dto.events.TaskEvent;
 import dev.ruslan.taskhub.model.entity.Task;
+import dev.ruslan.taskhub.model.entity.TaskOutboxEvent;
 import dev.ruslan.taskhub.model.entity.TaskStatus;
+import dev.ruslan.taskhub.repository.TaskOutboxRepository;
 import dev.ruslan.taskhub.repository.TaskRepository;
+import dev.ruslan.taskhub.repository.TaskSpecifications;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,11 +24,20 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -27,76 +45,133 @@ public class TaskService {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BULK_SIZE = 1000;
+    public static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    public static final int MAX_SEARCH_PAGE_SIZE = 100;
+    public static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
+    /**
+     * Глубина выдачи поиска: дальние страницы OFFSET'а ранжируют все совпадения и дороги
+     */
+    private static final int MAX_SEARCH_RESULTS = 1000;
+
+    private static final Sort PAGE_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     private final TaskRepository taskRepository;
     private final TaskMapper taskMapper;
     private final CacheManager cacheManager;
-    private final TaskKafkaProducer taskKafkaProducer;
+    private final TaskOutboxRepository taskOutboxRepository;
+    private final TaskCachePopulator taskCachePopulator;
+    private final TaskAccessTracker taskAccessTracker;
+    private final RedisBulkCacheWriter bulkCacheWriter;
+    private final TaskCollectionVersion collectionVersion;
 
     @Autowired
     public TaskService(TaskRepository taskRepository, TaskMapper taskMapper, 
-                      CacheManager cacheManager, TaskKafkaProducer taskKafkaProducer) {
+                      CacheManager cacheManager, TaskOutboxRepository taskOutboxRepository,
+                      TaskCachePopulator taskCachePopulator, TaskAccessTracker taskAccessTracker,
+                      RedisBulkCacheWriter bulkCacheWriter, TaskCollectionVersion collectionVersion) {
         this.taskRepository = taskRepository;
         this.taskMapper = taskMapper;
         this.cacheManager = cacheManager;
-        this.taskKafkaProducer = taskKafkaProducer;
+        this.taskOutboxRepository = taskOutboxRepository;
+        this.taskCachePopulator = taskCachePopulator;
+        this.taskAccessTracker = taskAccessTracker;
+        this.bulkCacheWriter = bulkCacheWriter;
+        this.collectionVersion = collectionVersion;
     }
 
+    /**
+     * Возвращает страницу задач с keyset-пагинацией по (created_at DESC, id DESC).
+     * Стоимость запроса не зависит от глубины страницы.
+     */
     @Transactional(readOnly = true)
-    public List<TaskDto> getAllTasks() {
-        logger.debug("Fetching all tasks from database");
-        List<Task> tasks = taskRepository.findAll();
-        List<TaskDto> taskDtos = taskMapper.toDtoList(tasks);
-        logger.debug("Loaded {} tasks from database", taskDtos.size());
+    public TaskPageDto getTasksPage(TaskStatus status, LocalDateTime createdFrom, LocalDateTime createdTo,
+                                    String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        TaskCursor after = cursor != null && !cursor.isBlank() ? TaskCursor.decode(cursor) : null;
+        logger.debug("Fetching tasks page: status={}, createdFrom={}, createdTo={}, cursor={}, size={}",
+            status, createdFrom, createdTo, cursor, size);
 
-        // Кешируем каждую задачу по отдельности напрямую через CacheManager
-        Cache taskCache = cacheManager.getCache("task");
-        if (taskCache != null) {
-            taskDtos.forEach(taskDto -> taskCache.put(taskDto.getId(), taskDto));
-            logger.debug("Cached {} tasks individually", taskDtos.size());
+        Specification<Task> spec = Specification.allOf(
+            TaskSpecifications.hasStatus(status),
+            TaskSpecifications.createdBetween(createdFrom, createdTo),
+            after != null ? TaskSpecifications.after(after.getCreatedAt(), after.getId()) : null
+        );
+
+        // Запрашиваем на одну запись больше, чтобы понять, есть ли следующая страница
+        List<Task> tasks = taskRepository.findBy(spec, query -> query
+            .sortBy(PAGE_SORT)
+            .limit(size + 1)
+            .all());
+
+        boolean hasNext = tasks.size() > size;
+        List<TaskDto> taskDtos = taskMapper.toDtoList(hasNext ? tasks.subList(0, size) : tasks);
+        String nextCursor = null;
+        if (hasNext) {
+            TaskDto last = taskDtos.get(taskDtos.size() - 1);
+            nextCursor = new TaskCursor(last.getCreatedAt(), last.getId()).encode();
         }
+        logger.debug("Loaded {} tasks from database, hasNext={}", taskDtos.size(), hasNext);
 
-        return taskDtos;
+        // Кешируем задачи страницы одной пакетной записью согласно политике
+        taskCachePopulator.populate(taskDtos, after == null);
+
+        return new TaskPageDto(taskDtos, nextCursor);
+    }
+
+    /**
+     * Полнотекстовый поиск по заголовку и описанию с нечетким совпадением заголовка.
+     * Результаты отсортированы по релевантности, глубина выдачи ограничена.
+     */
+    @Transactional(readOnly = true)
+    public TaskSearchPageDto searchTasks(String query, TaskStatus status, int page, int size) {
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        if (page < 0 || (long) (page + 1) * size > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("Only the first " + MAX_SEARCH_RESULTS + " search results are available");
+        }
+        String normalized = query.trim();
+        int offset = page * size;
+        logger.debug("Searching tasks: query='{}', status={}, page={}, size={}", normalized, status, page, size);
+
+        // Запрашиваем на одну запись больше, чтобы понять, есть ли следующая страница
+        List<Task> tasks = status == null
+            ? taskRepository.search(normalized, size + 1, offset)
+            : taskRepository.searchByStatus(normalized, status.name(), size + 1, offset);
+
+        boolean hasNext = tasks.size() > size && offset + size < MAX_SEARCH_RESULTS;
+        List<TaskDto> taskDtos = taskMapper.toDtoList(tasks.size() > size ? tasks.subList(0, size) : tasks);
+        logger.debug("Found {} tasks, hasNext={}", taskDtos.size(), hasNext);
+        return new TaskSearchPageDto(taskDtos, page, size, hasNext);
     }
 
     @Transactional(readOnly = true)
     public Optional<TaskDto> getTaskById(Long id) {
-        // Сначала пытаемся получить из кеша
+        taskAccessTracker.recordAccess(id);
+
         Cache taskCache = cacheManager.getCache("task");
-        if (taskCache != null) {
-            Cache.ValueWrapper cachedValue = taskCache.get(id);
-            if (cachedValue != null) {
-                Object cachedObject = cachedValue.get();
-                if (cachedObject instanceof TaskDto) {
-                    logger.debug("Task with ID: {} found in cache", id);
-                    return Optional.of((TaskDto) cachedObject);
-                } else if (cachedObject instanceof java.util.LinkedHashMap) {
-                    // Обрабатываем случай когда Jackson десериализовал как Map
-                    logger.debug("Task with ID: {} found in cache as Map, converting to TaskDto", id);
-                    TaskDto taskDto = convertMapToTaskDto((java.util.LinkedHashMap<?, ?>) cachedObject);
-                    if (taskDto != null) {
-                        // Обновляем кеш правильным объектом
-                        taskCache.put(id, taskDto);
-                        return Optional.of(taskDto);
-                    }
-                }
-            }
+        if (taskCache == null) {
+            return loadTask(id);
         }
 
-        // Если в кеше нет, идем в БД
+        // Конкурентные промахи по одному ID ждут единственную загрузку из БД
+        TaskDto task = taskCache.get(id, () -> loadTask(id).orElse(null));
+        return Optional.ofNullable(task);
+    }
+
+    private Optional<TaskDto> loadTask(Long id) {
         logger.debug("Fetching task with ID: {} from database (cache miss)", id);
-        Optional<Task> task = taskRepository.findById(id);
-        if (task.isPresent()) {
-            TaskDto result = taskMapper.toDto(task.get());
-            // Кешируем результат
-            if (taskCache != null) {
-                taskCache.put(id, result);
-                logger.debug("Loaded task with ID: {} from database and cached", id);
-            }
-            return Optional.of(result);
-        } else {
+        Optional<TaskDto> task = taskRepository.findById(id).map(taskMapper::toDto);
+        if (task.isEmpty()) {
             logger.debug("Task with ID: {} not found in database", id);
-            return Optional.empty();
         }
+        return task;
     }
 
     @CachePut(value = "task", key = "#result.id")
@@ -107,28 +182,98 @@ public class TaskService {
         TaskDto result = taskMapper.toDto(savedTask);
         logger.debug("Created task with ID: {} and added to task cache", result.getId());
         
-        // Отправка события создания задачи в Kafka
-        try {
-            TaskEvent taskEvent = new TaskEvent(
-                result.getId(),
-                result.getTitle(),
-                result.getStatus(),
-                TaskEvent.TASK_CREATED
-            );
-            taskKafkaProducer.sendTaskCreatedEvent(taskEvent);
-            logger.debug("Task created event sent to Kafka for task ID: {}", result.getId());
-        } catch (Exception e) {
-            logger.error("Failed to send task created event to Kafka for task ID: {}: {}", 
-                result.getId(), e.getMessage(), e);
-            // Не прерываем выполнение, так как задача уже создана
-        }
+        // Событие создания пишется в outbox в той же транзакции, в Kafka его отправит relay
+        saveOutboxEvent(result, TaskEvent.TASK_CREATED);
+        collectionVersion.bumpAfterCommit();
         
         return result;
     }
 
+    /**
+     * Создает несколько задач одной транзакцией.
+     * id берутся блоками из tasks_id_seq, поэтому задачи и события outbox уходят в БД
+     * JDBC-пакетами, а в кеш - одной пакетной записью после коммита.
+     */
+    public List<TaskDto> createTasks(List<TaskCreateDto> taskCreateDtos) {
+        logger.debug("Creating {} tasks in batch", taskCreateDtos.size());
+        List<Task> tasks = taskCreateDtos.stream().map(taskMapper::toEntity).toList();
+        List<TaskDto> result = taskMapper.toDtoList(taskRepository.saveAll(tasks));
+
+        saveOutboxEvents(result, TaskEvent.TASK_CREATED);
+        collectionVersion.bumpAfterCommit();
+        // Новые ключи не могут лежать в L1 других узлов, рассылка инвалидации не нужна
+        putAllToCache(result, false);
+        logger.debug("Created {} tasks with outbox events", result.size());
+        return result;
+    }
+
+    /**
+     * Обновляет несколько задач одной транзакцией: задачи читаются одним запросом с блокировкой строк,
+     * UPDATE'ы и события outbox уходят JDBC-пакетами, кеш обновляется одной пакетной записью.
+     * Если хотя бы одной задачи нет, ничего не меняется.
+     */
+    public List<TaskDto> updateTasks(List<TaskDto> taskDtos) {
+        logger.debug("Updating {} tasks in batch", taskDtos.size());
+        Set<Long> ids = new HashSet<>();
+        for (TaskDto taskDto : taskDtos) {
+            if (taskDto.getId() == null) {
+                throw new IllegalArgumentException("Task id is required for bulk update");
+            }
+            if (!ids.add(taskDto.getId())) {
+                throw new IllegalArgumentException("Duplicate task id in bulk update: " + taskDto.getId());
+            }
+        }
+
+        Map<Long, Task> existing = taskRepository.findAllByIdForUpdate(ids).stream()
+            .collect(Collectors.toMap(Task::getId, Function.identity()));
+        if (existing.size() < ids.size()) {
+            ids.removeAll(existing.keySet());
+            throw new TaskNotFoundException(ids);
+        }
+
+        List<Task> tasks = taskDtos.stream()
+            .map(taskDto -> {
+                Task task = existing.get(taskDto.getId());
+                taskMapper.updateEntityFromDto(taskDto, task);
+                return task;
+            })
+            .toList();
+        // flush отправляет UPDATE'ы пакетом и проставляет updatedAt до маппинга в DTO
+        taskRepository.flush();
+        List<TaskDto> result = taskMapper.toDtoList(tasks);
+
+        saveOutboxEvents(result, TaskEvent.TASK_UPDATED);
+        collectionVersion.bumpAfterCommit();
+        putAllToCache(result, true);
+        logger.debug("Updated {} tasks with outbox events", result.size());
+        return result;
+    }
+
+    private void saveOutboxEvents(List<TaskDto> tasks, String eventType) {
+        taskOutboxRepository.insertAll(tasks.stream()
+            .map(task -> new TaskOutboxEvent(task.getId(), eventType, task.getTitle(), task.getStatus()))
+            .toList());
+    }
+
+    private void putAllToCache(List<TaskDto> tasks, boolean replace) {
+        Cache taskCache = cacheManager.getCache("task");
+        if (taskCache == null) {
+            return;
+        }
+        Map<Long, TaskDto> entries = new LinkedHashMap<>();
+        tasks.forEach(task -> entries.put(task.getId(), task));
+        if (replace) {
+            bulkCacheWriter.replaceAll(taskCache, entries);
+        } else {
+            bulkCacheWriter.putAll(taskCache, entries);
+        }
+    }
+
     public Optional<TaskDto> updateTask(Long id, TaskDto taskDto) {
         logger.debug("Updating task with ID: {}", id);
-        Optional<Task> existingTaskOptional = taskRepository.findById(id);
+        // Строка блокируется до записи в outbox: события обновлений одной задачи
+        // получают id в том же порядке, в каком фиксируются транзакции
+        Optional<Task> existingTaskOptional = taskRepository.findByIdForUpdate(id);
 
         if (existingTaskOptional.isPresent()) {
             Task existingTask = existingTaskOptional.get();
@@ -145,21 +290,9 @@ public class TaskService {
                 logger.debug("Updated task with ID: {} in database (cache not available)", id);
             }
             
-            // Отправка события обновления задачи в Kafka
-            try {
-                TaskEvent taskEvent = new TaskEvent(
-                    result.getId(),
-                    result.getTitle(),
-                    result.getStatus(),
-                    TaskEvent.TASK_UPDATED
-                );
-                taskKafkaProducer.sendTaskUpdatedEvent(taskEvent);
-                logger.debug("Task updated event sent to Kafka for task ID: {}", result.getId());
-            } catch (Exception e) {
-                logger.error("Failed to send task updated event to Kafka for task ID: {}: {}", 
-                    result.getId(), e.getMessage(), e);
-                // Не прерываем выполнение, так как задача уже обновлена
-            }
+            // Событие обновления пишется в outbox в той же транзакции, в Kafka его отправит relay
+            saveOutboxEvent(result, TaskEvent.TASK_UPDATED);
+            collectionVersion.bumpAfterCommit();
             
             return Optional.of(result);
         }
@@ -168,31 +301,9 @@ public class TaskService {
         return Optional.empty();
     }
 
-    /**
-     * Конвертирует LinkedHashMap в TaskDto (fallback для проблем с десериализацией)
-     */
-    private TaskDto convertMapToTaskDto(java.util.LinkedHashMap<?, ?> map) {
-        try {
-            TaskDto taskDto = new TaskDto();
-            if (map.get("id") != null) {
-                taskDto.setId(((Number) map.get("id")).longValue());
-            }
-            if (map.get("title") != null) {
-                taskDto.setTitle((String) map.get("title"));
-            }
-            if (map.get("description") != null) {
-                taskDto.setDescription((String) map.get("description"));
-            }
-            if (map.get("status") != null) {
-                taskDto.setStatus(TaskStatus.valueOf((String) map.get("status")));
-            }
-            // LocalDateTime поля будут null - это норм для кеша
-            logger.debug("Successfully converted Map to TaskDto for task ID: {}", taskDto.getId());
-            return taskDto;
-        } catch (Exception e) {
-            logger.error("Failed to convert Map to TaskDto: {}", e.getMessage());
-            return null;
-        }
+    private void saveOutboxEvent(TaskDto task, String eventType) {
+        taskOutboxRepository.save(new TaskOutboxEvent(task.getId(), eventType, task.getTitle(), task.getStatus()));
+        logger.debug("Saved {} outbox event for task ID: {}", eventType, task.getId());
     }
 
     @CacheEvict(value = "task", key = "#id")
@@ -200,6 +311,7 @@ public class TaskService {
         logger.debug("Deleting task with ID: {} and evicting from task cache", id);
         if (taskRepository.existsById(id)) {
             taskRepository.deleteById(id);
+            collectionVersion.bumpAfterCommit();
             logger.debug("Deleted task with ID: {} and evicted from task cache", id);
             return true;
         }
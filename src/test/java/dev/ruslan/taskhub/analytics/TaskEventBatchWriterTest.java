@@ -0,0 +1,50 @@
+package dev.ruslan.taskhub.analytics;
+
+import dev.ruslan.taskhub.model.dto.events.TaskEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class TaskEventBatchWriterTest {
+
+    @Test
+    void pausesConsumersWhileClickHouseIsStuckAndResumesAfterDrain() throws InterruptedException {
+        ClickHouseService clickHouseService = mock(ClickHouseService.class);
+        CountDownLatch clickHouseBack = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            clickHouseBack.await();
+            return null;
+        }).when(clickHouseService).insertTaskEvents(anyList());
+
+        TaskEventBatchWriter writer = new TaskEventBatchWriter(clickHouseService, new SimpleMeterRegistry(),
+                2, Duration.ofMillis(10), 20, Duration.ofMillis(50), 6, 2);
+        AtomicInteger pauses = new AtomicInteger();
+        CountDownLatch resumed = new CountDownLatch(1);
+        writer.setBackpressureHandlers(pauses::incrementAndGet, resumed::countDown);
+        writer.start();
+
+        AtomicInteger written = new AtomicInteger();
+        for (long id = 1; id <= 10; id++) {
+            // Не блокируется: места хватает, очередь только ставит listener'ы на паузу
+            writer.enqueue(new TaskEvent(id, "task " + id, null, "TASK_CREATED"), written::incrementAndGet);
+        }
+        assertThat(pauses.get()).isEqualTo(1);
+        assertThat(resumed.getCount()).isEqualTo(1);
+
+        clickHouseBack.countDown();
+        assertThat(resumed.await(2, TimeUnit.SECONDS)).isTrue();
+        writer.stop();
+
+        assertThat(pauses.get()).isEqualTo(1);
+        assertThat(written.get()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,84 @@
+package dev.ruslan.taskhub.api;
+
+import dev.ruslan.taskhub.cache.TaskCollectionVersion;
+import dev.ruslan.taskhub.model.dto.TaskDto;
+import dev.ruslan.taskhub.model.dto.TaskPageDto;
+import dev.ruslan.taskhub.model.entity.TaskStatus;
+import dev.ruslan.taskhub.service.TaskExportService;
+import dev.ruslan.taskhub.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TaskControllerConditionalGetTest {
+
+    private final TaskService taskService = mock(TaskService.class);
+    private final TaskCollectionVersion collectionVersion = mock(TaskCollectionVersion.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new TaskController(taskService, mock(TaskExportService.class), collectionVersion))
+            .build();
+
+    @Test
+    void taskReadIsNotModifiedWhileUpdatedAtIsUnchanged() throws Exception {
+        TaskDto task = new TaskDto("Title", "Description");
+        task.setId(42L);
+        task.setStatus(TaskStatus.TODO);
+        task.setUpdatedAt(LocalDateTime.of(2025, 1, 15, 10, 30, 0, 123_456_000));
+        when(taskService.getTaskById(42L)).thenReturn(Optional.of(task));
+
+        String etag = mockMvc.perform(get("/api/v1/tasks/42"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"task-42-");
+
+        mockMvc.perform(get("/api/v1/tasks/42").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        task.setUpdatedAt(task.getUpdatedAt().plusSeconds(1));
+        mockMvc.perform(get("/api/v1/tasks/42").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void matchingCollectionVersionSkipsTheDatabase() throws Exception {
+        when(collectionVersion.current()).thenReturn(100L);
+        when(taskService.getTasksPage(any(), any(), any(), any(), anyInt()))
+                .thenReturn(new TaskPageDto(List.of(), null));
+
+        String etag = mockMvc.perform(get("/api/v1/tasks").param("status", "TODO"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/tasks").param("status", "DONE").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        when(collectionVersion.current()).thenReturn(101L);
+        mockMvc.perform(get("/api/v1/tasks").param("status", "TODO").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        when(collectionVersion.current()).thenReturn(100L);
+        clearInvocations(taskService);
+        mockMvc.perform(get("/api/v1/tasks").param("status", "TODO").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        verify(taskService, never()).getTasksPage(any(), any(), any(), any(), anyInt());
+    }
+}
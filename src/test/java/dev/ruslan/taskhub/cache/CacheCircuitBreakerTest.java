@@ -0,0 +1,37 @@
+package dev.ruslan.taskhub.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheCircuitBreakerTest {
+
+    @Test
+    void nonBlockingCallsOpenBreakerAndCancelledProbeAllowsNextProbe() throws InterruptedException {
+        AtomicInteger closed = new AtomicInteger();
+        CacheCircuitBreaker breaker =
+                new CacheCircuitBreaker("reactive", 2, Duration.ofSeconds(1), Duration.ofMillis(50), Runnable::run);
+        breaker.addCloseListener(closed::incrementAndGet);
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            breaker.recordFailure(new IllegalStateException("timeout"));
+        }
+        assertThat(breaker.getState()).isEqualTo(CacheCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+
+        Thread.sleep(70);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        // Пробный вызов отменен подписчиком: следующий вызов снова пробный
+        breaker.recordCancelled();
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.recordSuccess(Duration.ofMillis(1).toNanos());
+
+        assertThat(breaker.getState()).isEqualTo(CacheCircuitBreaker.State.CLOSED);
+        assertThat(closed).hasValue(1);
+    }
+}
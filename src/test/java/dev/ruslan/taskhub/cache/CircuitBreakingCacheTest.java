@@ -0,0 +1,136 @@
+package dev.ruslan.taskhub.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakingCacheTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(50);
+
+    private final FlakyCache remote = new FlakyCache();
+    private final CacheCircuitBreaker breaker =
+            new CacheCircuitBreaker("test", 1, Duration.ofSeconds(1), OPEN_DURATION, Runnable::run);
+    private final CircuitBreakingCache cache = new CircuitBreakingCache(remote, breaker, 100);
+
+    @Test
+    void failedReplayKeepsKeysForNextRecovery() throws InterruptedException {
+        remote.down = true;
+        cache.put("a", 1);
+        cache.evict("b");
+
+        // Связь вернулась, но удаление при восстановлении падает
+        remote.evictFails = true;
+        recover();
+        assertThat(remote.evicted).isEmpty();
+
+        remote.evictFails = false;
+        remote.down = true;
+        probe();
+        recover();
+        assertThat(remote.evicted).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void pendingKeysMissUntilBackgroundReplayEvictsThem() throws InterruptedException {
+        List<Runnable> recoveryTasks = new CopyOnWriteArrayList<>();
+        CacheCircuitBreaker deferredBreaker =
+                new CacheCircuitBreaker("deferred", 1, Duration.ofSeconds(1), OPEN_DURATION, recoveryTasks::add);
+        CircuitBreakingCache deferredCache = new CircuitBreakingCache(remote, deferredBreaker, 100);
+        deferredCache.put("a", "old");
+
+        remote.down = true;
+        deferredCache.put("a", "new");
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+        remote.down = false;
+        deferredCache.get("probe");
+
+        // Цепь замкнута, но удаление еще не выполнено: устаревшее значение не читается
+        assertThat(deferredBreaker.isOpen()).isFalse();
+        assertThat(recoveryTasks).hasSize(1);
+        assertThat(deferredCache.get("a")).isNull();
+        assertThat(remote.get("a").get()).isEqualTo("old");
+
+        recoveryTasks.get(0).run();
+        assertThat(remote.evicted).containsExactly("a");
+        deferredCache.put("a", "new");
+        assertThat(deferredCache.get("a").get()).isEqualTo("new");
+    }
+
+    @Test
+    void failedClearKeepsOverflowForNextRecovery() throws InterruptedException {
+        remote.down = true;
+        cache.clear();
+
+        remote.clearFails = true;
+        recover();
+        assertThat(remote.clears).isZero();
+
+        remote.clearFails = false;
+        remote.down = true;
+        probe();
+        recover();
+        assertThat(remote.clears).isEqualTo(1);
+    }
+
+    private void probe() {
+        cache.runGuarded(() -> remote.get("probe"));
+    }
+
+    private void recover() throws InterruptedException {
+        Thread.sleep(OPEN_DURATION.toMillis() + 20);
+        remote.down = false;
+        probe();
+        assertThat(breaker.isOpen()).isFalse();
+    }
+
+    private static class FlakyCache extends ConcurrentMapCache {
+
+        volatile boolean down;
+        volatile boolean evictFails;
+        volatile boolean clearFails;
+        final List<Object> evicted = new CopyOnWriteArrayList<>();
+        volatile int clears;
+
+        FlakyCache() {
+            super("remote");
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            checkAvailable(false);
+            return super.get(key);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            checkAvailable(false);
+            super.put(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            checkAvailable(evictFails);
+            evicted.add(key);
+            super.evict(key);
+        }
+
+        @Override
+        public void clear() {
+            checkAvailable(clearFails);
+            clears++;
+            super.clear();
+        }
+
+        private void checkAvailable(boolean fails) {
+            if (down || fails) {
+                throw new IllegalStateException("remote cache unavailable");
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package dev.ruslan.taskhub.cache;
+
+import dev.ruslan.taskhub.service.ModelRouter;
+import dev.ruslan.taskhub.service.OpenRouterClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GenerationCacheTest {
+
+    private final GenerationCache cache = new GenerationCache(null, new ModelRouter(new SimpleMeterRegistry(),
+            List.of("model-a", "model-b"), 50, 3, Duration.ofSeconds(30),
+            true, Duration.ofSeconds(15), Duration.ofSeconds(2), Duration.ofSeconds(30)));
+
+    @Test
+    void nearIdenticalTopicsShareKey() {
+        assertThat(cache.key("  Kafka   Consumer на Java. "))
+                .isEqualTo(cache.key("kafka consumer на java"));
+        assertThat(cache.key("«Kafka Consumer»!"))
+                .isEqualTo(cache.key("KAFKA CONSUMER"));
+    }
+
+    @Test
+    void meaningfulSymbolsAreKept() {
+        assertThat(GenerationCache.normalize("C++")).isEqualTo("c++");
+        assertThat(cache.key("C++")).isNotEqualTo(cache.key("C#"));
+    }
+
+    @Test
+    void keyIncludesModelsAndPromptVersion() {
+        assertThat(cache.key("Kafka"))
+                .startsWith("model-a,model-b|")
+                .contains("|" + OpenRouterClient.PROMPT_VERSION + "|");
+    }
+}
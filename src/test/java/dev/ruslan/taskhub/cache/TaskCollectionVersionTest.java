@@ -0,0 +1,36 @@
+package dev.ruslan.taskhub.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskCollectionVersionTest {
+
+    @Test
+    void deferredBumpRunsWhenRedisRecovers() throws InterruptedException {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        CacheCircuitBreaker breaker =
+                new CacheCircuitBreaker("redis", 1, Duration.ofSeconds(1), Duration.ofMillis(50), Runnable::run);
+        TaskCollectionVersion version = new TaskCollectionVersion(redisTemplate, breaker);
+
+        when(redisTemplate.execute(any(), anyList(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"))
+                .thenReturn(2L);
+        version.bump();
+
+        // Связь восстановлена другим вызовом на этом узле: версия увеличивается без чтения current()
+        Thread.sleep(70);
+        breaker.run(() -> { }, () -> { });
+
+        verify(redisTemplate, times(2)).execute(any(), anyList(), any());
+    }
+}
@@ -0,0 +1,68 @@
+package dev.ruslan.taskhub.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dev.ruslan.taskhub.model.dto.TaskDto;
+import dev.ruslan.taskhub.model.entity.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskDtoRedisSerializerTest {
+
+    private final TaskDtoRedisSerializer serializer = new TaskDtoRedisSerializer();
+
+    @Test
+    void roundTripPreservesAllFields() {
+        TaskDto task = sampleTask();
+
+        TaskDto restored = serializer.deserialize(serializer.serialize(task));
+
+        assertThat(restored).usingRecursiveComparison().isEqualTo(task);
+    }
+
+    @Test
+    void roundTripPreservesNullFields() {
+        TaskDto task = new TaskDto("Только заголовок", null);
+        task.setId(7L);
+
+        TaskDto restored = serializer.deserialize(serializer.serialize(task));
+
+        assertThat(restored).usingRecursiveComparison().isEqualTo(task);
+    }
+
+    @Test
+    void legacyJsonEntryIsTreatedAsCacheMiss() {
+        byte[] json = jsonSerializer().serialize(sampleTask());
+
+        assertThat(serializer.deserialize(json)).isNull();
+    }
+
+    @Test
+    void binaryEntryIsSmallerThanJson() {
+        TaskDto task = sampleTask();
+
+        assertThat(serializer.serialize(task).length)
+                .isLessThan(jsonSerializer().serialize(task).length);
+    }
+
+    private static TaskDto sampleTask() {
+        TaskDto task = new TaskDto("Настроить Kafka Consumer", "Обработка событий task.created и task.updated");
+        task.setId(42L);
+        task.setStatus(TaskStatus.IN_PROGRESS);
+        task.setCreatedAt(LocalDateTime.of(2025, 1, 15, 10, 30, 0, 123_456_000));
+        task.setUpdatedAt(LocalDateTime.of(2025, 1, 16, 8, 0, 5, 1_000));
+        return task;
+    }
+
+    private static GenericJackson2JsonRedisSerializer jsonSerializer() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
+}
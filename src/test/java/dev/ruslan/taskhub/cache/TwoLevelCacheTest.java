@@ -0,0 +1,38 @@
+package dev.ruslan.taskhub.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TwoLevelCacheTest {
+
+    @Test
+    void rejectedEarlyRefreshDoesNotBlockLaterLoads() throws Exception {
+        // Обновление всегда нужно, но executor его отклоняет, как при переполнении или остановке
+        TwoLevelCache.EarlyRefreshPolicy policy = new TwoLevelCache.EarlyRefreshPolicy(
+                Set.of("task"), 1e9, Duration.ofSeconds(1).toNanos(),
+                command -> { throw new RejectedExecutionException("queue is full"); });
+        ConcurrentMapCache remote = new ConcurrentMapCache("task");
+        TwoLevelCache cache = new TwoLevelCache("task", Caffeine.newBuilder().build(),
+                Duration.ofMinutes(1).toNanos(), remote, mock(CacheInvalidationPublisher.class), policy);
+
+        cache.put(1L, "v1");
+        assertThat(cache.get(1L, () -> "unused")).isEqualTo("v1");
+
+        // L1 и L2 истекли: загрузка не должна ждать пропущенного обновления
+        cache.evictLocal("1");
+        remote.evict(1L);
+        String value = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> "v2"))
+                .get(5, TimeUnit.SECONDS);
+        assertThat(value).isEqualTo("v2");
+    }
+}
@@ -0,0 +1,29 @@
+package dev.ruslan.taskhub.imports;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedLineReaderTest {
+
+    @Test
+    void skipsOversizedLineAndContinuesWithNext() throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new BufferedReader(new StringReader(
+                "{\"title\":\"a\"}\r\n" + "x".repeat(100) + "\n\n{\"title\":\"b\"}")), 20);
+
+        assertThat(reader.next()).isEqualTo("{\"title\":\"a\"}");
+        assertThat(reader.isTooLong()).isFalse();
+        assertThat(reader.next()).isEmpty();
+        assertThat(reader.isTooLong()).isTrue();
+        assertThat(reader.getLine()).isEqualTo(2);
+        assertThat(reader.next()).isEmpty();
+        assertThat(reader.isTooLong()).isFalse();
+        assertThat(reader.next()).isEqualTo("{\"title\":\"b\"}");
+        assertThat(reader.getLine()).isEqualTo(4);
+        assertThat(reader.next()).isNull();
+    }
+}
@@ -0,0 +1,40 @@
+package dev.ruslan.taskhub.imports;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecordReaderTest {
+
+    private static CsvRecordReader reader(String csv, int maxRecordLength) {
+        return new CsvRecordReader(new BufferedReader(new StringReader(csv)), maxRecordLength);
+    }
+
+    @Test
+    void readsQuotedFieldsWithSeparatorsQuotesAndNewlines() throws IOException {
+        CsvRecordReader reader = reader("title,description\r\n"
+                + "\"Deploy, then verify\",\"Say \"\"hi\"\"\nand leave\"\r\n"
+                + "plain,\n", 1024);
+
+        assertThat(reader.next()).containsExactly("title", "description");
+        assertThat(reader.next()).containsExactly("Deploy, then verify", "Say \"hi\"\nand leave");
+        assertThat(reader.getRecordLine()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("plain", "");
+        assertThat(reader.getRecordLine()).isEqualTo(4);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void rejectsUnterminatedQuoteAndOversizedRecord() throws IOException {
+        CsvRecordReader unterminated = reader("title\n\"never closed\nmore", 1024);
+        unterminated.next();
+        assertThatThrownBy(unterminated::next).hasMessageContaining("Line 2: unterminated");
+
+        assertThatThrownBy(reader("x".repeat(20), 10)::next).hasMessageContaining("exceeds 10");
+    }
+}
@@ -0,0 +1,63 @@
+package dev.ruslan.taskhub.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionPrimitivesTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstThenReportsWaitUntilNextToken() {
+        TokenBucket bucket = new TokenBucket(2, 0);
+
+        assertThat(bucket.tryConsume(2, 1, 0)).isZero();
+        assertThat(bucket.tryConsume(2, 1, 0)).isZero();
+        assertThat(bucket.tryConsume(2, 1, 0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void refillsContinuouslyUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 0);
+        bucket.tryConsume(2, 1, 0);
+        bucket.tryConsume(2, 1, 0);
+
+        assertThat(bucket.tryConsume(2, 1, SECOND / 2)).isEqualTo(SECOND / 2);
+        assertThat(bucket.tryConsume(2, 1, SECOND)).isZero();
+
+        // Долгий простой не копит токенов больше емкости
+        assertThat(bucket.tryConsume(2, 1, 100 * SECOND)).isZero();
+        assertThat(bucket.tryConsume(2, 1, 100 * SECOND)).isZero();
+        assertThat(bucket.tryConsume(2, 1, 100 * SECOND)).isPositive();
+    }
+
+    @Test
+    void chargesBatchPerTopicAndKeepsAverageRate() {
+        TokenBucket bucket = new TokenBucket(5, 0);
+
+        // Пакет из 20 тем при полном бакете допускается, но оставляет долг в 15 токенов
+        assertThat(bucket.tryConsume(20, 5, 1, 0)).isZero();
+        assertThat(bucket.tryConsume(1, 5, 1, 0)).isEqualTo(16 * SECOND);
+        assertThat(bucket.tryConsume(1, 5, 1, 16 * SECOND)).isZero();
+
+        // Пакет больше емкости ждет полного бакета
+        assertThat(bucket.tryConsume(20, 5, 1, 16 * SECOND)).isEqualTo(5 * SECOND);
+    }
+
+    @Test
+    void limiterRejectsWhenWaitQueueIsFull() throws InterruptedException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 0);
+
+        assertThat(limiter.acquire(0)).isEqualTo(ConcurrencyLimiter.Result.ACQUIRED);
+        assertThat(limiter.acquire(SECOND)).isEqualTo(ConcurrencyLimiter.Result.QUEUE_FULL);
+
+        limiter.setLimits(1, 1);
+        assertThat(limiter.acquire(0)).isEqualTo(ConcurrencyLimiter.Result.TIMED_OUT);
+
+        limiter.release();
+        assertThat(limiter.acquire(0)).isEqualTo(ConcurrencyLimiter.Result.ACQUIRED);
+    }
+}
@@ -0,0 +1,141 @@
+package dev.ruslan.taskhub.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Локальная замена OpenRouter для тестов: отдает chat/completions как SSE-поток
+ * или, без stream=true, обычным ответом с настраиваемой задержкой для каждой модели
+ */
+class MockOpenRouterServer implements AutoCloseable {
+
+    private static final Pattern MODEL = Pattern.compile("\"model\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, ModelResponse> modelResponses = new ConcurrentHashMap<>();
+    private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+    private final CountDownLatch releaseRest = new CountDownLatch(1);
+    private volatile List<String> tokens = List.of();
+
+    MockOpenRouterServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/chat/completions", this::handleCompletions);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Фрагменты ответа: первый отправляется сразу, остальные после {@link #releaseRest()}
+     */
+    void respondWith(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Обычный (не потоковый) ответ модели: через delay, с content или статусом ошибки
+     */
+    void respondWith(String model, Duration delay, int status, String content) {
+        modelResponses.put(model, new ModelResponse(delay, status, content));
+    }
+
+    void releaseRest() {
+        releaseRest.countDown();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1";
+    }
+
+    List<String> requestBodies() {
+        return requestBodies;
+    }
+
+    @Override
+    public void close() {
+        releaseRest.countDown();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleCompletions(HttpExchange exchange) throws IOException {
+        String requestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        requestBodies.add(requestBody);
+        if (!requestBody.contains("\"stream\":true")) {
+            handleCompletion(exchange, requestBody);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream body = exchange.getResponseBody()) {
+            write(body, ": OPENROUTER PROCESSING\n\n");
+            for (int i = 0; i < tokens.size(); i++) {
+                if (i == 1 && !releaseRest.await(5, TimeUnit.SECONDS)) {
+                    return;
+                }
+                write(body, "data: " + chunk(tokens.get(i)) + "\n\n");
+            }
+            write(body, "data: [DONE]\n\n");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handleCompletion(HttpExchange exchange, String requestBody) throws IOException {
+        Matcher matcher = MODEL.matcher(requestBody);
+        ModelResponse response = matcher.find() ? modelResponses.get(matcher.group(1)) : null;
+        if (response == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        try {
+            Thread.sleep(response.delay().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (response.status() != 200) {
+            exchange.sendResponseHeaders(response.status(), -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = ("{\"id\":\"gen-1\",\"model\":\"" + matcher.group(1) + "\",\"choices\":[{\"index\":0,"
+            + "\"message\":{\"role\":\"assistant\",\"content\":\"" + response.content() + "\"},"
+            + "\"finish_reason\":\"stop\"}]}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void write(OutputStream body, String data) throws IOException {
+        body.write(data.getBytes(StandardCharsets.UTF_8));
+        body.flush();
+    }
+
+    private static String chunk(String token) {
+        String escaped = token.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return "{\"id\":\"gen-1\",\"model\":\"mock\",\"choices\":[{\"index\":0,"
+            + "\"delta\":{\"role\":\"assistant\",\"content\":\"" + escaped + "\"},\"finish_reason\":null}]}";
+    }
+
+    private record ModelResponse(Duration delay, int status, String content) {}
+}
@@ -0,0 +1,57 @@
+package dev.ruslan.taskhub.service;
+
+import dev.ruslan.taskhub.config.OpenRouterModelProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModelRouterBindingTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            // Как в SpringApplication: "30s" из @Value преобразуется в Duration
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(RouterConfig.class);
+
+    @Test
+    void bindsYamlModelList() {
+        // Так YAML-список models: [- a, - b] выглядит в Environment
+        contextRunner.withPropertyValues(
+                        "openrouter.models[0]=openai/gpt-4o-mini",
+                        "openrouter.models[1]=mistralai/mistral-7b-instruct:free")
+                .run(context -> assertThat(context.getBean(ModelRouter.class).getModels())
+                        .containsExactly("openai/gpt-4o-mini", "mistralai/mistral-7b-instruct:free"));
+    }
+
+    @Test
+    void bindsCommaSeparatedModels() {
+        contextRunner.withPropertyValues("openrouter.models=model-a,model-b")
+                .run(context -> assertThat(context.getBean(ModelRouter.class).getModels())
+                        .containsExactly("model-a", "model-b"));
+    }
+
+    @Test
+    void usesDefaultModelWhenNotConfigured() {
+        contextRunner.run(context -> assertThat(context.getBean(ModelRouter.class).getModels())
+                .containsExactly("mistralai/mistral-7b-instruct:free"));
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(OpenRouterModelProperties.class)
+    @Import(ModelRouter.class)
+    static class RouterConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
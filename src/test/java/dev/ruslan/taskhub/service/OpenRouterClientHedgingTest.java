@@ -0,0 +1,82 @@
+package dev.ruslan.taskhub.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpenRouterClientHedgingTest {
+
+    private MockOpenRouterServer server;
+    private ModelRouter modelRouter;
+    private OpenRouterClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new MockOpenRouterServer();
+        modelRouter = new ModelRouter(new SimpleMeterRegistry(), List.of("slow", "fast"), 50, 3,
+                Duration.ofSeconds(30), true, Duration.ofMillis(200), Duration.ofMillis(100), Duration.ofSeconds(5));
+        client = new OpenRouterClient(WebClient.create(server.baseUrl()), modelRouter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void slowPrimaryIsHedgedWithAlternateModel() {
+        server.respondWith("slow", Duration.ofSeconds(10), 200, "slow answer");
+        server.respondWith("fast", Duration.ZERO, 200, "fast answer");
+
+        long start = System.nanoTime();
+        String content = client.completeTaskAsync("Kafka").block(Duration.ofSeconds(5));
+
+        assertThat(content).isEqualTo("fast answer");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        // Быстрая модель теперь ранжируется первой
+        assertThat(modelRouter.rankedModels()).first().isEqualTo("fast");
+    }
+
+    @Test
+    void congestedPrimaryWithFastHistoryLosesFirstPlace() {
+        modelRouter = new ModelRouter(new SimpleMeterRegistry(), List.of("primary", "backup"), 50, 3,
+                Duration.ofSeconds(30), true, Duration.ofMillis(200), Duration.ofMillis(100), Duration.ofSeconds(5));
+        client = new OpenRouterClient(WebClient.create(server.baseUrl()), modelRouter);
+        server.respondWith("primary", Duration.ZERO, 200, "primary answer");
+        server.respondWith("backup", Duration.ofMillis(50), 200, "backup answer");
+        for (int i = 0; i < 3; i++) {
+            assertThat(client.completeTaskAsync("Kafka").block(Duration.ofSeconds(5))).isEqualTo("primary answer");
+        }
+
+        // Модель перегружена: отвечает хеджирующая, отмененные запросы копят статистику
+        server.respondWith("primary", Duration.ofSeconds(10), 200, "primary answer");
+        int calls = 0;
+        while (modelRouter.rankedModels().get(0).equals("primary") && calls < 10) {
+            assertThat(client.completeTaskAsync("Kafka").block(Duration.ofSeconds(5))).isEqualTo("backup answer");
+            calls++;
+        }
+
+        assertThat(modelRouter.rankedModels()).first().isEqualTo("backup");
+        assertThat(client.completeTaskAsync("Kafka").block(Duration.ofSeconds(5))).isEqualTo("backup answer");
+    }
+
+    @Test
+    void failingPrimaryFallsBackWithoutWaitingForHedgeDelay() {
+        modelRouter = new ModelRouter(new SimpleMeterRegistry(), List.of("broken", "fast"), 50, 3,
+                Duration.ofSeconds(30), true, Duration.ofSeconds(30), Duration.ofSeconds(30), Duration.ofSeconds(30));
+        client = new OpenRouterClient(WebClient.create(server.baseUrl()), modelRouter);
+        server.respondWith("broken", Duration.ZERO, 503, null);
+        server.respondWith("fast", Duration.ZERO, 200, "fast answer");
+
+        String content = client.completeTaskAsync("Kafka").block(Duration.ofSeconds(5));
+
+        assertThat(content).isEqualTo("fast answer");
+    }
+}
@@ -0,0 +1,58 @@
+package dev.ruslan.taskhub.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpenRouterClientStreamTest {
+
+    private MockOpenRouterServer server;
+    private OpenRouterClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new MockOpenRouterServer();
+        ModelRouter modelRouter = new ModelRouter(new SimpleMeterRegistry(), List.of("mock"), 50, 3,
+                Duration.ofSeconds(30), true, Duration.ofSeconds(15), Duration.ofSeconds(2), Duration.ofSeconds(30));
+        client = new OpenRouterClient(WebClient.create(server.baseUrl()), modelRouter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void firstTokenArrivesBeforeCompletionFinishes() {
+        server.respondWith(List.of("## Описание\n", "Создать ", "Kafka Consumer"));
+
+        Iterator<String> tokens = client.streamTask("Kafka").toIterable(1).iterator();
+
+        // Остальные фрагменты сервер отправит только после получения первого
+        assertThat(tokens.next()).isEqualTo("## Описание\n");
+        server.releaseRest();
+
+        List<String> rest = new ArrayList<>();
+        tokens.forEachRemaining(rest::add);
+        assertThat(rest).containsExactly("Создать ", "Kafka Consumer");
+    }
+
+    @Test
+    void requestsStreamingMode() {
+        server.respondWith(List.of("ok"));
+        server.releaseRest();
+
+        client.streamTask("Kafka").blockLast();
+
+        assertThat(server.requestBodies()).singleElement().asString().contains("\"stream\":true");
+    }
+}